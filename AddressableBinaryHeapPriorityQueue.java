@@ -0,0 +1,228 @@
+package hw5;
+
+import exceptions.EmptyException;
+import exceptions.PositionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Priority queue implemented as a binary heap of positions.
+ *
+ * <p>Same ranked array representation as BinaryHeapPriorityQueue, but the
+ * slots hold little entry objects instead of the values themselves. Each
+ * entry remembers its current slot, and the sift loops keep that index
+ * up to date as they move entries around. That way insertHandle() can
+ * hand out the entry as a Position, and the position can later be used
+ * to change or remove its value in O(log n) without searching.</p>
+ *
+ * <p>Calling put() on a position is the same as calling update() with
+ * it.</p>
+ *
+ * @param <T> Element type.
+ */
+public class AddressableBinaryHeapPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private ArrayList<Entry<T>> heap;
+  private Comparator<T> cmp;
+
+  /**
+   * An addressable heap using the "natural" ordering of T.
+   */
+  public AddressableBinaryHeapPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * An addressable heap using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public AddressableBinaryHeapPriorityQueue(Comparator<T> cmp) {
+    heap = new ArrayList<>();
+    this.cmp = cmp;
+  }
+
+  // Convert a position back into an entry. Guards against null positions,
+  // positions from other data structures, and positions that are no
+  // longer in this heap.
+  private Entry<T> convert(Position<T> p) throws PositionException {
+    try {
+      Entry<T> e = (Entry<T>) p;
+      if (e.owner != this) {
+        throw PositionException.create();
+      }
+      return e;
+    } catch (NullPointerException | ClassCastException e) {
+      throw PositionException.create();
+    }
+  }
+
+  @Override
+  public void insert(T t) {
+    insertHandle(t);
+  }
+
+  /**
+   * Insert a value and get a handle to it.
+   *
+   * @param t Value to insert.
+   * @return Position holding the value until it is removed.
+   */
+  public Position<T> insertHandle(T t) {
+    Entry<T> e = new Entry<>(this, t);
+    heap.add(e);
+    siftUp(e, heap.size() - 1);
+    return e;
+  }
+
+  /**
+   * Change the value at a position, moving it up or down as needed.
+   *
+   * @param p Position to change.
+   * @param t New value.
+   * @throws PositionException If p is invalid or already removed.
+   */
+  public void update(Position<T> p, T t) throws PositionException {
+    Entry<T> e = convert(p);
+    int c = cmp.compare(t, e.value);
+    e.value = t;
+    if (c > 0) {
+      siftUp(e, e.index);
+    } else if (c < 0) {
+      siftDown(e, e.index);
+    }
+  }
+
+  /**
+   * Remove the value at a position.
+   *
+   * @param p Position to remove.
+   * @throws PositionException If p is invalid or already removed.
+   */
+  public void remove(Position<T> p) throws PositionException {
+    removeAt(convert(p).index);
+  }
+
+  /**
+   * Check if a position is still in this queue.
+   *
+   * @param p Position to examine.
+   * @return True if p was returned by this queue and not yet removed.
+   */
+  public boolean contains(Position<T> p) {
+    return p instanceof Entry && ((Entry<?>) p).owner == this;
+  }
+
+  // Removes the entry in slot i by filling the hole with the last entry.
+  private void removeAt(int i) {
+    Entry<T> gone = heap.get(i);
+    Entry<T> last = heap.remove(heap.size() - 1);
+    gone.owner = null;
+    if (last != gone) {
+      // the moved entry may belong above or below slot i
+      if (i > 0 && cmp.compare(heap.get((i - 1) / 2).value, last.value) < 0) {
+        siftUp(last, i);
+      } else {
+        siftDown(last, i);
+      }
+    }
+  }
+
+  // Moves e up from slot i (a "hole") until its parent is no worse.
+  private void siftUp(Entry<T> e, int i) {
+    while (i > 0) {
+      int parent = (i - 1) / 2;
+      Entry<T> p = heap.get(parent);
+      if (cmp.compare(p.value, e.value) >= 0) {
+        break;
+      }
+      heap.set(i, p);
+      p.index = i;
+      i = parent;
+    }
+    heap.set(i, e);
+    e.index = i;
+  }
+
+  // Moves e down from slot i (a "hole") until no child is better.
+  private void siftDown(Entry<T> e, int i) {
+    int size = heap.size();
+    int half = size / 2;
+    while (i < half) {
+      int child = 2 * i + 1;
+      Entry<T> c = heap.get(child);
+      if (child + 1 < size) {
+        Entry<T> right = heap.get(child + 1);
+        if (cmp.compare(c.value, right.value) < 0) {
+          child++;
+          c = right;
+        }
+      }
+      if (cmp.compare(e.value, c.value) >= 0) {
+        break;
+      }
+      heap.set(i, c);
+      c.index = i;
+      i = child;
+    }
+    heap.set(i, e);
+    e.index = i;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (heap.isEmpty()) {
+      throw EmptyException.create();
+    }
+    removeAt(0);
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (heap.isEmpty()) {
+      throw EmptyException.create();
+    }
+    return heap.get(0).value;
+  }
+
+  @Override
+  public boolean empty() {
+    return heap.isEmpty();
+  }
+
+  // An entry of the heap, doubling as the position handed out for it.
+  // The owner is cleared on removal, which invalidates the position.
+  private static final class Entry<T extends Comparable<T>>
+      implements Position<T> {
+    AddressableBinaryHeapPriorityQueue<T> owner;
+    T value;
+    int index;
+
+    Entry(AddressableBinaryHeapPriorityQueue<T> owner, T value) {
+      this.owner = owner;
+      this.value = value;
+    }
+
+    @Override
+    public T get() {
+      return value;
+    }
+
+    @Override
+    public void put(T t) {
+      if (owner == null) {
+        throw PositionException.create();
+      }
+      owner.update(this, t);
+    }
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package hw5;
+
+import exceptions.PositionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the AddressableBinaryHeapPriorityQueue to test.
+ */
+public class AddressableBinaryHeapPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new AddressableBinaryHeapPriorityQueue<>();
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new AddressableBinaryHeapPriorityQueue<>(comp);
+  }
+
+  @Test
+  public void testUpdateMovesValue() {
+    AddressableBinaryHeapPriorityQueue<Integer> pq =
+        new AddressableBinaryHeapPriorityQueue<>(reverseComp);
+    Position<Integer> a = pq.insertHandle(5);
+    Position<Integer> b = pq.insertHandle(7);
+    pq.insertHandle(9);
+    assertEquals(5, pq.best().intValue());
+    pq.update(b, 1); // decrease-key
+    assertEquals(1, pq.best().intValue());
+    assertEquals(1, b.get().intValue());
+    a.put(10); // put() is update() in disguise
+    pq.remove();
+    assertEquals(9, pq.best().intValue());
+    pq.remove();
+    assertEquals(10, pq.best().intValue());
+  }
+
+  @Test
+  public void testRemoveHandle() {
+    AddressableBinaryHeapPriorityQueue<Integer> pq =
+        new AddressableBinaryHeapPriorityQueue<>();
+    Position<Integer> a = pq.insertHandle(5);
+    Position<Integer> b = pq.insertHandle(9);
+    assertTrue(pq.contains(b));
+    pq.remove(b);
+    assertFalse(pq.contains(b));
+    assertTrue(pq.contains(a));
+    assertEquals(5, pq.best().intValue());
+    pq.remove();
+    assertFalse(pq.contains(a));
+    assertTrue(pq.empty());
+  }
+
+  @Test(expected = PositionException.class)
+  public void testRemovedHandleInvalid() {
+    AddressableBinaryHeapPriorityQueue<Integer> pq =
+        new AddressableBinaryHeapPriorityQueue<>();
+    Position<Integer> a = pq.insertHandle(5);
+    pq.remove(a);
+    pq.update(a, 6);
+  }
+
+  @Test(expected = PositionException.class)
+  public void testForeignHandleInvalid() {
+    AddressableBinaryHeapPriorityQueue<Integer> other =
+        new AddressableBinaryHeapPriorityQueue<>();
+    AddressableBinaryHeapPriorityQueue<Integer> pq =
+        new AddressableBinaryHeapPriorityQueue<>();
+    pq.remove(other.insertHandle(1));
+  }
+
+  @Test
+  public void testRandomUpdatesKeepOrder() {
+    AddressableBinaryHeapPriorityQueue<Integer> pq =
+        new AddressableBinaryHeapPriorityQueue<>();
+    ArrayList<Position<Integer>> handles = new ArrayList<>();
+    Random r = new Random(7);
+    for (int i = 0; i < 300; i++) {
+      handles.add(pq.insertHandle(r.nextInt(1000)));
+    }
+    for (int i = 0; i < 300; i++) {
+      pq.update(handles.get(r.nextInt(handles.size())), r.nextInt(1000));
+    }
+    for (int i = 0; i < 50; i++) {
+      Position<Integer> p = handles.remove(r.nextInt(handles.size()));
+      pq.remove(p);
+    }
+    int prev = Integer.MAX_VALUE;
+    int count = 0;
+    while (!pq.empty()) {
+      int v = pq.best();
+      assertTrue(v <= prev);
+      prev = v;
+      pq.remove();
+      count++;
+    }
+    assertEquals(250, count);
+  }
+}
@@ -0,0 +1,484 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Priority queue implemented as a binary heap over a raw array.
+ *
+ * <p>Same ranked array layout as BinaryHeapPriorityQueue (children of
+ * slot i at 2i+1 and 2i+2), but the elements live in an Object[] that
+ * we grow ourselves, so there is no ArrayList bounds checking on every
+ * access. Both sifts move a "hole" instead of swapping: going down, one
+ * comparison picks the better child and one more decides whether the
+ * displaced element belongs in the hole, so a remove() costs at most two
+ * comparisons per level and writes every moved element exactly once.</p>
+ *
+ * <p>For expensive comparators the heap can also remove bottom-up
+ * (Wegener's heapsort trick): the hole goes all the way down to a leaf
+ * with one comparison per level to pick the better child, and only then
+ * does the last element climb back up. It usually belongs near the
+ * bottom anyway, so that costs about log2(n) + 1 comparisons instead of
+ * 2 log2(n), at the price of a few more moves.</p>
+ *
+ * @param <T> Element type.
+ */
+public class ArrayHeapPriorityQueue<T extends Comparable<T>>
+    implements TraversablePriorityQueue<T>,
+    SizedPriorityQueue<T> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] heap;
+  private int size;
+  private Comparator<T> cmp;
+  private final boolean bottomUp;
+  private PriorityQueueMetrics metrics; // null unless instrumented
+  private int modCount; // bumped on every change, for fail-fast views
+
+  /**
+   * An array heap using the "natural" ordering of T.
+   */
+  public ArrayHeapPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * An array heap using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public ArrayHeapPriorityQueue(Comparator<T> cmp) {
+    this(INITIAL_CAPACITY, cmp);
+  }
+
+  /**
+   * An array heap with room for the given number of elements before it
+   * has to grow.
+   *
+   * @param capacity Initial capacity, at least 1.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If capacity is less than 1.
+   */
+  public ArrayHeapPriorityQueue(int capacity, Comparator<T> cmp) {
+    this(capacity, cmp, false);
+  }
+
+  /**
+   * An array heap that removes top-down or bottom-up.
+   *
+   * @param capacity Initial capacity, at least 1.
+   * @param cmp Comparator to use.
+   * @param bottomUp True to remove bottom-up, which saves comparisons
+   *                 when they are expensive.
+   * @throws IllegalArgumentException If capacity is less than 1.
+   */
+  public ArrayHeapPriorityQueue(int capacity, Comparator<T> cmp,
+                                boolean bottomUp) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    heap = new Object[capacity];
+    this.cmp = cmp;
+    this.bottomUp = bottomUp;
+  }
+
+  /**
+   * Whether remove() works bottom-up.
+   *
+   * @return true if this heap removes bottom-up.
+   */
+  public boolean bottomUp() {
+    return bottomUp;
+  }
+
+  /**
+   * Start or stop recording metrics for this heap.
+   *
+   * @param metrics Metrics to record into, or null to stop recording.
+   */
+  public void setMetrics(PriorityQueueMetrics metrics) {
+    this.metrics = metrics;
+    if (metrics != null) {
+      metrics.sized(size);
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Number of elements the queue can hold before it has to grow.
+   *
+   * @return current capacity.
+   */
+  public int capacity() {
+    return heap.length;
+  }
+
+  /**
+   * Make sure the queue can hold at least the given number of elements
+   * without growing again.
+   *
+   * @param capacity Minimum capacity.
+   */
+  public void ensureCapacity(int capacity) {
+    if (capacity > heap.length) {
+      resize(Math.max(capacity, heap.length + (heap.length >> 1)));
+    }
+  }
+
+  /**
+   * Shrink the backing array down to the current size.
+   */
+  public void trimToSize() {
+    if (size < heap.length) {
+      resize(Math.max(1, size));
+    }
+  }
+
+  private void resize(int capacity) {
+    heap = Arrays.copyOf(heap, capacity);
+    if (metrics != null) {
+      metrics.resized(capacity);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T at(int i) {
+    return (T) heap[i];
+  }
+
+  // Comparator call that gets counted if metrics are on.
+  private int compare(T t1, T t2) {
+    if (metrics != null) {
+      metrics.compared();
+    }
+    return cmp.compare(t1, t2);
+  }
+
+  @Override
+  public void insert(T t) {
+    if (size == heap.length) {
+      resize(heap.length * 2);
+    }
+    modCount++;
+    siftUp(size++, t);
+    if (metrics != null) {
+      metrics.sized(size);
+    }
+  }
+
+  // Moves the hole at slot i up until t fits in it, then puts t there.
+  private void siftUp(int i, T t) {
+    int curr = i;
+    while (curr > 0) {
+      int parent = (curr - 1) >>> 1;
+      T p = at(parent);
+      if (compare(p, t) >= 0) {
+        break;
+      }
+      heap[curr] = p;
+      curr = parent;
+    }
+    heap[curr] = t;
+    if (metrics != null) {
+      int levels = 0;
+      for (int j = i; j > curr; j = (j - 1) >>> 1) {
+        levels++;
+      }
+      metrics.swapped(levels);
+      metrics.sifted(levels);
+    }
+  }
+
+  // Moves the hole at slot i down until t fits in it, then puts t there.
+  private void siftDown(int i, T t) {
+    int curr = i;
+    int half = size >>> 1; // slots from here on are leaves
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      T c = at(child);
+      int right = child + 1;
+      if (right < size && compare(c, at(right)) < 0) {
+        child = right;
+        c = at(right);
+      }
+      if (compare(t, c) >= 0) {
+        break;
+      }
+      heap[curr] = c;
+      curr = child;
+    }
+    heap[curr] = t;
+    if (metrics != null) {
+      int levels = 0;
+      for (int j = curr; j > i; j = (j - 1) >>> 1) {
+        levels++;
+      }
+      metrics.swapped(levels);
+      metrics.sifted(levels);
+    }
+  }
+
+  // Bottom-up version of siftDown(0, t): moves the hole at the root down
+  // to a leaf along the path of better children, then lets t climb back
+  // up from there.
+  private void siftDownBottomUp(T t) {
+    int curr = 0;
+    int half = size >>> 1;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      int right = child + 1;
+      if (right < size && compare(at(child), at(right)) < 0) {
+        child = right;
+      }
+      heap[curr] = heap[child];
+      curr = child;
+    }
+    if (metrics != null) {
+      int levels = 0;
+      for (int j = curr; j > 0; j = (j - 1) >>> 1) {
+        levels++;
+      }
+      metrics.swapped(levels);
+    }
+    siftUp(curr, t);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>A batch at least as large as the heap is appended and the whole
+   * thing re-heapified in O(n + k); smaller batches are sifted up one by
+   * one in O(k log n).</p>
+   */
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    ensureCapacity(size + ts.size());
+    modCount++;
+    if (ts.size() >= size) {
+      for (T t : ts) {
+        heap[size++] = t;
+      }
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i, at(i));
+      }
+    } else {
+      for (T t : ts) {
+        siftUp(size++, t);
+      }
+    }
+    if (metrics != null) {
+      metrics.sized(size);
+    }
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    removeRoot();
+  }
+
+  // Removes the root of a non-empty heap and returns it.
+  private T removeRoot() {
+    modCount++;
+    T best = at(0);
+    T last = at(--size);
+    heap[size] = null; // don't hang on to removed elements
+    if (size > 0) {
+      if (bottomUp) {
+        siftDownBottomUp(last);
+      } else {
+        siftDown(0, last);
+      }
+    }
+    if (metrics != null) {
+      metrics.sized(size);
+    }
+    return best;
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = 0;
+    while (n < max && size > 0) {
+      sink.add(removeRoot());
+      n++;
+    }
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = 0;
+    while (n < sink.length && size > 0) {
+      sink[n++] = removeRoot();
+    }
+    return n;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return at(0);
+  }
+
+  @Override
+  public T peekOrNull() {
+    return size == 0 ? null : at(0);
+  }
+
+  @Override
+  public T pollOrNull() {
+    return size == 0 ? null : removeRoot();
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Looking at the top k costs O(k log k), however big the heap is;
+   * see HeapOrderIterator.</p>
+   */
+  @Override
+  public Iterable<T> orderedView(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative");
+    }
+    return () -> new HeapOrderIterator<>(this::at, size, cmp,
+        limit, () -> modCount);
+  }
+
+  @Override
+  public void forEach(Consumer<? super T> action) {
+    int expected = modCount;
+    for (int i = 0; i < size && modCount == expected; i++) {
+      action.accept(at(i));
+    }
+    if (modCount != expected) {
+      throw new ConcurrentModificationException();
+    }
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return StreamSupport.stream(new ArraySpliterator<>(this::at, 0, size,
+        () -> modCount), false);
+  }
+
+  @Override
+  public Stream<T> parallelStream() {
+    return StreamSupport.stream(new ArraySpliterator<>(this::at, 0, size,
+        () -> modCount), true);
+  }
+
+  @Override
+  public Stream<T> orderedStream() {
+    return StreamSupport.stream(Spliterators.spliterator(
+        orderedView(size).iterator(), size, Spliterator.ORDERED), false);
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * <p>The heap array is written as is, so restore() gets a valid heap
+   * back without sifting anything.</p>
+   *
+   * @param out Channel to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the channel can't be written.
+   */
+  public void snapshot(WritableByteChannel out, RecordCodec<T> codec)
+      throws IOException {
+    Snapshots.write(out, codec, size, this::at);
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * @param out Stream to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the stream can't be written.
+   */
+  public void snapshot(OutputStream out, RecordCodec<T> codec)
+      throws IOException {
+    snapshot(Channels.newChannel(out), codec);
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * <p>The elements go straight back into the heap array; it was a heap
+   * when it was written, so it is one now.</p>
+   *
+   * @param in Channel to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the channel can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> ArrayHeapPriorityQueue<T>
+      restore(ReadableByteChannel in, RecordCodec<T> codec,
+              Comparator<T> cmp) throws IOException {
+    ArrayHeapPriorityQueue<T> pq = new ArrayHeapPriorityQueue<>(cmp);
+    Snapshots.read(in, codec, t -> {
+      pq.ensureCapacity(pq.size + 1);
+      pq.heap[pq.size++] = t;
+    });
+    return pq;
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * @param in Stream to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the stream can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> ArrayHeapPriorityQueue<T>
+      restore(InputStream in, RecordCodec<T> codec, Comparator<T> cmp)
+      throws IOException {
+    return restore(Channels.newChannel(in), codec, cmp);
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package hw5;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the ArrayHeapPriorityQueue to test.
+ */
+public class ArrayHeapPriorityQueueTest
+    extends TraversablePriorityQueueTest {
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit() {
+    return new ArrayHeapPriorityQueue<>();
+  }
+
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp) {
+    return new ArrayHeapPriorityQueue<>(comp);
+  }
+
+  // Comparator that counts how often it gets called.
+  private static int log2(int n) {
+    return 31 - Integer.numberOfLeadingZeros(n);
+  }
+
+  @Test
+  public void insertComparesAtMostOncePerLevel() {
+    TestSupport.CountingComparator c = new TestSupport.CountingComparator();
+    ArrayHeapPriorityQueue<Integer> pq = new ArrayHeapPriorityQueue<>(c);
+    Random r = new Random(1);
+    for (int n = 0; n < 5000; n++) {
+      c.count = 0;
+      pq.insert(r.nextInt());
+      // the new element starts at depth log2(n+1)
+      assertTrue(c.count <= log2(n + 1));
+    }
+  }
+
+  @Test
+  public void removeComparesAtMostTwicePerLevel() {
+    TestSupport.CountingComparator c = new TestSupport.CountingComparator();
+    ArrayHeapPriorityQueue<Integer> pq = new ArrayHeapPriorityQueue<>(c);
+    Random r = new Random(2);
+    for (int i = 0; i < 5000; i++) {
+      pq.insert(r.nextInt());
+    }
+    int prev = Integer.MAX_VALUE;
+    while (!pq.empty()) {
+      int n = pq.size();
+      int best = pq.best();
+      assertTrue(best <= prev);
+      prev = best;
+      c.count = 0;
+      pq.remove();
+      // the hole goes down at most log2(n-1) levels, one comparison to
+      // pick the better child and one to place the last element
+      int levels = n > 1 ? log2(n - 1) : 0;
+      assertTrue(c.count <= 2 * levels);
+    }
+  }
+
+  @Test
+  public void growsAndTrims() {
+    ArrayHeapPriorityQueue<Integer> pq =
+        new ArrayHeapPriorityQueue<>(1, reverseComp);
+    PriorityQueueMetrics m = new PriorityQueueMetrics();
+    pq.setMetrics(m);
+    for (int i = 0; i < 100; i++) {
+      pq.insert(i);
+    }
+    assertEquals(100, pq.size());
+    assertTrue(pq.capacity() >= 100);
+    assertEquals(7, m.getResizes()); // 2, 4, ..., 128
+    pq.trimToSize();
+    assertEquals(100, pq.capacity());
+    pq.ensureCapacity(1000);
+    assertTrue(pq.capacity() >= 1000);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, pq.best().intValue());
+      pq.remove();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacityRejected() {
+    new ArrayHeapPriorityQueue<>(0, reverseComp);
+  }
+
+  @Test
+  public void testInsertAllHeapifies() {
+    unit.insert(3);
+    unit.insertAll(Arrays.asList(9, 1, 7, 4));
+    unit.insertAll(Arrays.asList(8));
+    for (int v : new int[] {9, 8, 7, 4, 3, 1}) {
+      assertEquals(v, unit.best().intValue());
+      unit.remove();
+    }
+    assertTrue(unit.empty());
+  }
+
+  @Test
+  public void testSnapshotRestoresHeapAsIs() throws IOException {
+    TestSupport.CountingComparator c = new TestSupport.CountingComparator();
+    ArrayHeapPriorityQueue<Integer> pq = new ArrayHeapPriorityQueue<>(c);
+    Random r = new Random(20);
+    for (int i = 0; i < 1000; i++) {
+      pq.insert(r.nextInt());
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(out, new TestSupport.IntCodec());
+    c.count = 0;
+    ArrayHeapPriorityQueue<Integer> copy = ArrayHeapPriorityQueue.restore(
+        new ByteArrayInputStream(out.toByteArray()),
+        new TestSupport.IntCodec(), c);
+    assertEquals(0, c.count); // no re-heapify
+    assertEquals(1000, copy.size());
+    while (!pq.empty()) {
+      assertEquals(pq.best(), copy.best());
+      pq.remove();
+      copy.remove();
+    }
+    assertTrue(copy.empty());
+  }
+}
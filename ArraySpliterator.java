@@ -0,0 +1,95 @@
+package hw5;
+
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Spliterator over a range of array slots, for parallel streams over the
+ * queues that keep their elements in an array of their own.
+ *
+ * <p>Splitting just halves the index range, so every piece knows its
+ * exact size (SIZED and SUBSIZED) and nothing is copied. Slots are
+ * visited in index order, which is not priority order. Fail-fast: if the
+ * queue changes during the traversal, a ConcurrentModificationException
+ * is thrown (at the latest when the traversal ends).</p>
+ *
+ * @param <T> Element type.
+ */
+final class ArraySpliterator<T> implements Spliterator<T> {
+  private final IntFunction<T> at;
+  private final IntSupplier modCount;
+  private final int expected;
+  private int index; // next slot to visit
+  private final int fence; // one past the last slot
+
+  /**
+   * A spliterator over slots index through fence - 1.
+   *
+   * @param at Element in slot i.
+   * @param index First slot.
+   * @param fence One past the last slot.
+   * @param modCount Counter the queue bumps on every change.
+   */
+  ArraySpliterator(IntFunction<T> at, int index, int fence,
+                   IntSupplier modCount) {
+    this(at, index, fence, modCount, modCount.getAsInt());
+  }
+
+  private ArraySpliterator(IntFunction<T> at, int index, int fence,
+                           IntSupplier modCount, int expected) {
+    this.at = at;
+    this.index = index;
+    this.fence = fence;
+    this.modCount = modCount;
+    this.expected = expected;
+  }
+
+  private void check() {
+    if (modCount.getAsInt() != expected) {
+      throw new ConcurrentModificationException();
+    }
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (index >= fence) {
+      return false;
+    }
+    check();
+    action.accept(at.apply(index++));
+    return true;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    for (; index < fence; index++) {
+      action.accept(at.apply(index));
+    }
+    check();
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    int mid = (index + fence) >>> 1;
+    if (mid <= index) {
+      return null;
+    }
+    Spliterator<T> prefix =
+        new ArraySpliterator<>(at, index, mid, modCount, expected);
+    index = mid;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return SIZED | SUBSIZED;
+  }
+}
@@ -1,8 +1,21 @@
 package hw5;
 
 import exceptions.EmptyException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -16,10 +29,12 @@ import java.util.Comparator;
  * @param <T> Element type.
  */
 public class BinaryHeapPriorityQueue<T extends Comparable<T>>
-    implements PriorityQueue<T> {
+    implements TraversablePriorityQueue<T> {
 
   private ArrayList<T> list;
   private Comparator<T> cmp;
+  private PriorityQueueMetrics metrics; // null unless instrumented
+  private int modCount; // bumped on every change, for fail-fast views
 
   /**
    * A binary heap using the "natural" ordering of T.
@@ -39,19 +54,147 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
     this.cmp = cmp;
   }
 
+  /**
+   * A binary heap holding the given values, using the "natural"
+   * ordering of T.
+   *
+   * @param items Values to start out with.
+   */
+  public BinaryHeapPriorityQueue(Collection<? extends T> items) {
+    this(items, new DefaultComparator<>());
+  }
+
+  /**
+   * A binary heap holding the given values, using the given comparator
+   * for T.
+   *
+   * <p>The values are copied in as they are and then heapified bottom-up
+   * in O(n) time, which beats n calls to insert().</p>
+   *
+   * @param items Values to start out with.
+   * @param cmp Comparator to use.
+   */
+  public BinaryHeapPriorityQueue(Collection<? extends T> items,
+                                 Comparator<T> cmp) {
+    list = new ArrayList<>(items);
+    this.cmp = cmp;
+    heapify();
+  }
+
+  /**
+   * A binary heap holding the values of an array.
+   *
+   * @param items Values to start out with.
+   * @param cmp Comparator to use.
+   * @param <T> Element type.
+   * @return a heap containing all the values, built in O(n) time.
+   */
+  public static <T extends Comparable<T>> BinaryHeapPriorityQueue<T>
+      fromArray(T[] items, Comparator<T> cmp) {
+    BinaryHeapPriorityQueue<T> pq = new BinaryHeapPriorityQueue<>(cmp);
+    pq.list.ensureCapacity(items.length);
+    for (T t : items) {
+      pq.list.add(t);
+    }
+    pq.heapify();
+    return pq;
+  }
+
+  /**
+   * A binary heap holding the values produced by an iterator.
+   *
+   * @param items Values to start out with.
+   * @param cmp Comparator to use.
+   * @param <T> Element type.
+   * @return a heap containing all the values, built in O(n) time.
+   */
+  public static <T extends Comparable<T>> BinaryHeapPriorityQueue<T>
+      fromIterator(Iterator<? extends T> items, Comparator<T> cmp) {
+    BinaryHeapPriorityQueue<T> pq = new BinaryHeapPriorityQueue<>(cmp);
+    while (items.hasNext()) {
+      pq.list.add(items.next());
+    }
+    pq.heapify();
+    return pq;
+  }
+
+  // Floyd's bottom-up construction: every slot past size/2 is a leaf and
+  // already a heap, so sink the internal nodes from the last one up.
+  private void heapify() {
+    modCount++;
+    for (int i = list.size() / 2 - 1; i >= 0; i--) {
+      sink(i);
+    }
+    if (metrics != null) {
+      metrics.sized(list.size());
+    }
+  }
+
+  /**
+   * Start or stop recording metrics for this heap.
+   *
+   * <p>Counts comparisons, swaps, sift lengths and the size; with no
+   * metrics set, the only cost is a null check here and there.</p>
+   *
+   * @param metrics Metrics to record into, or null to stop recording.
+   */
+  public void setMetrics(PriorityQueueMetrics metrics) {
+    this.metrics = metrics;
+    if (metrics != null) {
+      metrics.sized(list.size());
+    }
+  }
+
+  // Comparator call that gets counted if metrics are on.
+  private int compare(T t1, T t2) {
+    if (metrics != null) {
+      metrics.compared();
+    }
+    return cmp.compare(t1, t2);
+  }
+
   @Override
   public void insert(T t) {
+    modCount++;
     if (list.isEmpty()) {
       list.add(t);
     } else {
       list.add(t); // insert at end
       int curr = list.size() - 1;
-      while (curr > 0 && cmp.compare(list.get((curr - 1) / 2), t) < 0) {
+      int levels = 0;
+      while (curr > 0 && compare(list.get((curr - 1) / 2), t) < 0) {
         //swim up
         T temp = list.get(curr);
         list.set(curr, list.get((curr - 1) / 2));
         list.set((curr - 1) / 2, temp);
         curr = (curr - 1) / 2;
+        levels++;
+      }
+      if (metrics != null) {
+        metrics.swapped(levels);
+        metrics.sifted(levels);
+      }
+    }
+    if (metrics != null) {
+      metrics.sized(list.size());
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>A batch at least as large as the heap is appended and the whole
+   * thing re-heapified in O(n + k); smaller batches are sifted up one by
+   * one in O(k log n).</p>
+   */
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    if (ts.size() >= list.size()) {
+      list.addAll(ts);
+      heapify();
+    } else {
+      for (T t : ts) {
+        insert(t);
       }
     }
   }
@@ -84,7 +227,7 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * @return true if sink operation us required
    */
   public boolean sinkRequired(int i) {
-    return leftSinkRequired(i) || rightSinkRequired(i);
+    return childBetter(i, 2 * i + 1) || childBetter(i, 2 * i + 2);
   }
 
   /**
@@ -94,10 +237,7 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * @return true if left sink operation us required
    */
   public boolean leftSinkRequired(int i) {
-    if (hasLeftChild(i)) {
-      return cmp.compare(list.get(i), list.get(2 * i + 1)) < 0;
-    }
-    return false;
+    return childBetter(i, 2 * i + 1);
   }
 
   /**
@@ -107,10 +247,14 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * @return true if right sink operation us required
    */
   public boolean rightSinkRequired(int i) {
-    if (hasRightChild(i)) {
-      return cmp.compare(list.get(i),list.get(2 * i + 2)) < 0;
-    }
-    return false;
+    return childBetter(i, 2 * i + 2);
+  }
+
+  // Is there a value in slot child, and is it better than the one in
+  // slot i? Private so that sink(), and through it the constructors,
+  // don't call anything a subclass could override.
+  private boolean childBetter(int i, int child) {
+    return child < list.size() && compare(list.get(i), list.get(child)) < 0;
   }
 
   /**
@@ -118,9 +262,7 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * @param curr is current position in list
    */
   public void leftSink(int curr) {
-    T temp = list.get(curr);
-    list.set(curr, list.get(2 * curr + 1));
-    list.set(2 * curr + 1, temp);
+    swapWithChild(curr, 2 * curr + 1);
   }
 
   /**
@@ -128,9 +270,17 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * @param curr is current position in list
    */
   public void rightSink(int curr) {
+    swapWithChild(curr, 2 * curr + 2);
+  }
+
+  // Trades the values in slot curr and its child slot.
+  private void swapWithChild(int curr, int child) {
     T temp = list.get(curr);
-    list.set(curr, list.get(2 * curr + 2));
-    list.set(2 * curr + 2, temp);
+    list.set(curr, list.get(child));
+    list.set(child, temp);
+    if (metrics != null) {
+      metrics.swapped(1);
+    }
   }
 
   /**
@@ -147,19 +297,31 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
    * Performs the sink operation on the entire heap.
    */
   public void sinkRootTillApplicable() {
-    int root = 0;
-    while (sinkRequired(root)) { //sink root
-      int curr = root;
-      while (curr < list.size() && sinkRequired(curr)) {
-        if (leftSinkRequired(curr)) {
-          leftSink(curr);
-          curr = 2 * curr + 1;
-        }
-        if (rightSinkRequired(curr)) {
-          rightSink(curr);
-          curr = 2 * curr + 2;
-        }
+    sink(0);
+  }
+
+  // Sinks the element at position i until neither child is better.
+  // It has to trade places with the better of its two children, else
+  // the child that stays behind could end up above a worse parent.
+  private void sink(int i) {
+    int curr = i;
+    while (childBetter(curr, 2 * curr + 1)
+        || childBetter(curr, 2 * curr + 2)) {
+      int child = 2 * curr + 1;
+      if (childBetter(curr, child + 1)
+          && compare(list.get(child), list.get(child + 1)) < 0) {
+        child++;
       }
+      swapWithChild(curr, child);
+      curr = child;
+    }
+    if (metrics != null) {
+      // each level down doubles the index (plus one or two)
+      int levels = 0;
+      for (int j = curr; j > i; j = (j - 1) / 2) {
+        levels++;
+      }
+      metrics.sifted(levels);
     }
   }
 
@@ -167,29 +329,179 @@ public class BinaryHeapPriorityQueue<T extends Comparable<T>>
   @Override
   public void remove() throws EmptyException {
     if (list.isEmpty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
+    removeRoot();
+  }
+
+  // Removes the root of a non-empty heap.
+  private void removeRoot() {
+    modCount++;
     if (list.size() == 1) {
       list.remove(0);
     } else {
       swapRootWithLastLeafAndRemoveLeaf();
       sinkRootTillApplicable();
     }
+    if (metrics != null) {
+      metrics.sized(list.size());
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = 0;
+    while (n < max && !list.isEmpty()) {
+      sink.add(list.get(0));
+      removeRoot();
+      n++;
+    }
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = 0;
+    while (n < sink.length && !list.isEmpty()) {
+      sink[n++] = list.get(0);
+      removeRoot();
+    }
+    return n;
   }
 
   @Override
   public T best() throws EmptyException {
     if (list.isEmpty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     return list.get(0);
   }
 
+  @Override
+  public T peekOrNull() {
+    return list.isEmpty() ? null : list.get(0);
+  }
+
+  @Override
+  public T pollOrNull() {
+    if (list.isEmpty()) {
+      return null;
+    }
+    T t = list.get(0);
+    removeRoot();
+    return t;
+  }
+
   @Override
   public boolean empty() {
     return list.isEmpty();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Looking at the top k costs O(k log k), however big the heap is;
+   * see HeapOrderIterator.</p>
+   */
+  @Override
+  public Iterable<T> orderedView(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative");
+    }
+    return () -> new HeapOrderIterator<>(list::get, list.size(), cmp,
+        limit, () -> modCount);
+  }
+
+  @Override
+  public void forEach(Consumer<? super T> action) {
+    list.forEach(action); // fail-fast already
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return StreamSupport.stream(list.spliterator(), false);
+  }
+
+  @Override
+  public Stream<T> parallelStream() {
+    return StreamSupport.stream(list.spliterator(), true);
+  }
+
+  @Override
+  public Stream<T> orderedStream() {
+    int size = list.size();
+    return StreamSupport.stream(Spliterators.spliterator(
+        orderedView(size).iterator(), size, Spliterator.ORDERED), false);
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * <p>The heap array is written as is, so restore() gets a valid heap
+   * back without sifting anything.</p>
+   *
+   * @param out Channel to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the channel can't be written.
+   */
+  public void snapshot(WritableByteChannel out, RecordCodec<T> codec)
+      throws IOException {
+    Snapshots.write(out, codec, list.size(), list::get);
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * @param out Stream to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the stream can't be written.
+   */
+  public void snapshot(OutputStream out, RecordCodec<T> codec)
+      throws IOException {
+    snapshot(Channels.newChannel(out), codec);
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * <p>The elements go straight back into the heap array; it was a heap
+   * when it was written, so it is one now.</p>
+   *
+   * @param in Channel to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the channel can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> BinaryHeapPriorityQueue<T>
+      restore(ReadableByteChannel in, RecordCodec<T> codec,
+              Comparator<T> cmp) throws IOException {
+    BinaryHeapPriorityQueue<T> pq = new BinaryHeapPriorityQueue<>(cmp);
+    Snapshots.read(in, codec, pq.list::add);
+    return pq;
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * @param in Stream to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the stream can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> BinaryHeapPriorityQueue<T>
+      restore(InputStream in, RecordCodec<T> codec, Comparator<T> cmp)
+      throws IOException {
+    return restore(Channels.newChannel(in), codec, cmp);
+  }
+
   // The default comparator uses the "natural" ordering.
   private static class DefaultComparator<T extends Comparable<T>>
       implements Comparator<T> {
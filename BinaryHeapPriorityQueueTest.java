@@ -1,19 +1,115 @@
 package hw5;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Comparator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Instantiate the BinaryHeapPriorityQueue to test.
  */
-public class BinaryHeapPriorityQueueTest extends PriorityQueueTest {
+public class BinaryHeapPriorityQueueTest
+    extends TraversablePriorityQueueTest {
   @Override
-  protected PriorityQueue<Integer> createUnit() {
+  protected TraversablePriorityQueue<Integer> createUnit() {
     return new BinaryHeapPriorityQueue<>();
   }
 
   @Override
-  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+  protected TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp) {
     return new BinaryHeapPriorityQueue<>(comp);
   }
 
+  private static void assertDrains(PriorityQueue<Integer> pq, int... values) {
+    for (int v : values) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void testBuildFromCollection() {
+    PriorityQueue<Integer> pq =
+        new BinaryHeapPriorityQueue<>(Arrays.asList(1, 4, 0, 8, 8, 2));
+    assertDrains(pq, 8, 8, 4, 2, 1, 0);
+  }
+
+  @Test
+  public void testBuildFromArray() {
+    PriorityQueue<Integer> pq = BinaryHeapPriorityQueue.fromArray(
+        new Integer[] {1, 4, 0, 8, 2}, reverseComp);
+    assertDrains(pq, 0, 1, 2, 4, 8);
+  }
+
+  @Test
+  public void testBuildFromIterator() {
+    PriorityQueue<Integer> pq = BinaryHeapPriorityQueue.fromIterator(
+        Arrays.asList(3, 9, 1, 7).iterator(), Comparator.naturalOrder());
+    assertDrains(pq, 9, 7, 3, 1);
+  }
+
+  @Test
+  public void testInsertAllSmallBatchIntoBigHeap() {
+    unit.insertAll(Arrays.asList(10, 20, 30, 40, 50));
+    unit.insertAll(Arrays.asList(35, 5));
+    assertDrains(unit, 50, 40, 35, 30, 20, 10, 5);
+  }
+
+  @Test
+  public void testSnapshotRoundTrip() throws IOException {
+    BinaryHeapPriorityQueue<Integer> pq =
+        new BinaryHeapPriorityQueue<>(reverseComp);
+    for (int v : new int[] {5, 3, 9, 1, 7, 3}) {
+      pq.insert(v);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(out, new TestSupport.IntCodec());
+    // header, six 4-byte records, checksum
+    assertEquals(12 + 6 * 4 + 8, out.size());
+    PriorityQueue<Integer> copy = BinaryHeapPriorityQueue.restore(
+        new ByteArrayInputStream(out.toByteArray()),
+        new TestSupport.IntCodec(), reverseComp);
+    assertDrains(copy, 1, 3, 3, 5, 7, 9);
+    assertDrains(pq, 1, 3, 3, 5, 7, 9);
+  }
+
+  @Test
+  public void testRestoreStopsAtSnapshotEnd() throws IOException {
+    BinaryHeapPriorityQueue<Integer> pq = new BinaryHeapPriorityQueue<>();
+    for (int i = 0; i < 20000; i++) { // more than one read buffer
+      pq.insert(i);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(out, new TestSupport.IntCodec());
+    pq.snapshot(out, new TestSupport.IntCodec());
+    out.write(new byte[] {1, 2, 3});
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    for (int k = 0; k < 2; k++) {
+      PriorityQueue<Integer> copy = BinaryHeapPriorityQueue.restore(in,
+          new TestSupport.IntCodec(), Integer::compareTo);
+      assertEquals(Integer.valueOf(19999), copy.best());
+    }
+    assertEquals(3, in.available());
+    assertEquals(1, in.read());
+  }
+
+  @Test(expected = IOException.class)
+  public void testCorruptSnapshotRejected() throws IOException {
+    BinaryHeapPriorityQueue<Integer> pq = new BinaryHeapPriorityQueue<>();
+    pq.insert(1);
+    pq.insert(2);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(out, new TestSupport.IntCodec());
+    byte[] bytes = out.toByteArray();
+    bytes[13] ^= 4;
+    BinaryHeapPriorityQueue.restore(new ByteArrayInputStream(bytes),
+        new TestSupport.IntCodec(), Comparator.naturalOrder());
+  }
 }
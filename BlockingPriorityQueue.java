@@ -0,0 +1,195 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, blocking front end for any PriorityQueue.
+ *
+ * <p>All calls go through one ReentrantLock; consumers that find the queue
+ * empty wait on a Condition until a value is inserted, instead of spinning
+ * on empty() and catching EmptyException. We stay away from synchronized
+ * on purpose: parking on a j.u.c. lock releases the carrier thread of a
+ * virtual thread, while a synchronized block pins it.</p>
+ *
+ * <p>The wrapped queue should not be used directly anymore, else the lock
+ * doesn't protect it.</p>
+ *
+ * @param <T> Element type.
+ */
+public class BlockingPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private final PriorityQueue<T> pq;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+
+  /**
+   * A blocking queue on top of the given queue.
+   *
+   * @param pq Queue to wrap; its ordering is used.
+   */
+  public BlockingPriorityQueue(PriorityQueue<T> pq) {
+    this.pq = pq;
+  }
+
+  @Override
+  public void insert(T t) {
+    lock.lock();
+    try {
+      pq.insert(t);
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Insert a value; the queue is unbounded, so this always succeeds.
+   *
+   * @param t Value to insert.
+   * @return Always true.
+   */
+  public boolean offer(T t) {
+    insert(t);
+    return true;
+  }
+
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    lock.lock();
+    try {
+      pq.insertAll(ts);
+      if (!pq.empty()) {
+        notEmpty.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Remove and return the best value, waiting for one if necessary.
+   *
+   * @return best value.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public T take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (pq.empty()) {
+        notEmpty.await();
+      }
+      return pq.pollOrNull();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Remove and return the best value, waiting up to the given time for
+   * one if necessary.
+   *
+   * @param timeout How long to wait, in units of unit.
+   * @param unit Unit of timeout.
+   * @return best value, or null if none showed up in time.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (pq.empty()) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return pq.pollOrNull();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Remove and return the best value without waiting or throwing.
+   *
+   * @return best value, or null if the queue is empty.
+   */
+  public T pollBest() {
+    lock.lock();
+    try {
+      return pq.pollOrNull();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public T pollOrNull() {
+    return pollBest();
+  }
+
+  @Override
+  public T peekOrNull() {
+    lock.lock();
+    try {
+      return pq.peekOrNull();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    lock.lock();
+    try {
+      return pq.drainTo(sink, max);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    lock.lock();
+    try {
+      return pq.drainTo(sink);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    lock.lock();
+    try {
+      pq.remove();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    lock.lock();
+    try {
+      return pq.best();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean empty() {
+    lock.lock();
+    try {
+      return pq.empty();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
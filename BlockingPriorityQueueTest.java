@@ -0,0 +1,87 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the BlockingPriorityQueue to test.
+ */
+public class BlockingPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<>(comp));
+  }
+
+  @Test
+  public void pollBestReturnsNullWhenEmpty() {
+    BlockingPriorityQueue<Integer> pq =
+        new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+    assertNull(pq.pollBest());
+    pq.offer(3);
+    pq.offer(5);
+    assertEquals(5, pq.pollBest().intValue());
+    assertEquals(3, pq.pollBest().intValue());
+    assertNull(pq.pollBest());
+  }
+
+  @Test
+  public void pollTimesOut() throws InterruptedException {
+    BlockingPriorityQueue<Integer> pq =
+        new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+    assertNull(pq.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void takeWaitsForInsert() throws InterruptedException {
+    int consumers = 8;
+    int perConsumer = 1000;
+    BlockingPriorityQueue<Integer> pq =
+        new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+    AtomicIntegerArray seen = new AtomicIntegerArray(consumers * perConsumer);
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < consumers; c++) {
+      threads.add(new Thread(() -> {
+        try {
+          for (int i = 0; i < perConsumer; i++) {
+            seen.incrementAndGet(pq.take());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }));
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (int v = 0; v < consumers * perConsumer; v++) {
+      pq.insert(v);
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+    assertTrue(pq.empty());
+    for (int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  @Test(expected = InterruptedException.class)
+  public void takeIsInterruptible() throws InterruptedException {
+    BlockingPriorityQueue<Integer> pq =
+        new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+    Thread.currentThread().interrupt();
+    pq.take();
+  }
+}
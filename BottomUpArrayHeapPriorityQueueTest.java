@@ -0,0 +1,66 @@
+package hw5;
+
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the ArrayHeapPriorityQueue in bottom-up mode to test.
+ */
+public class BottomUpArrayHeapPriorityQueueTest
+    extends TraversablePriorityQueueTest {
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit() {
+    return createUnit(Comparator.naturalOrder());
+  }
+
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp) {
+    return new ArrayHeapPriorityQueue<>(16, comp, true);
+  }
+
+  // Comparator that counts how often it gets called.
+  // Comparisons spent removing n random values from a heap.
+  private static long removeComparisons(boolean bottomUp, int n) {
+    TestSupport.CountingComparator c = new TestSupport.CountingComparator();
+    ArrayHeapPriorityQueue<Integer> pq =
+        new ArrayHeapPriorityQueue<>(n, c, bottomUp);
+    Random r = new Random(n);
+    for (int i = 0; i < n; i++) {
+      pq.insert(r.nextInt());
+    }
+    c.count = 0;
+    int prev = Integer.MAX_VALUE;
+    while (!pq.empty()) {
+      int best = pq.best();
+      assertTrue(best <= prev);
+      prev = best;
+      pq.remove();
+    }
+    return c.count;
+  }
+
+  @Test
+  public void bottomUpSavesComparisons() {
+    int n = 1 << 14;
+    long topDown = removeComparisons(false, n);
+    long bottomUp = removeComparisons(true, n);
+    // top-down is about 2 log2(n) per remove, bottom-up about log2(n)+1;
+    // for n = 16384 that's roughly 25 vs 14 including the short tail
+    assertTrue("top-down " + topDown + ", bottom-up " + bottomUp,
+        bottomUp * 10 < topDown * 7);
+    assertTrue(bottomUp < (long) n * 15);
+  }
+
+  @Test
+  public void bottomUpFlagReported() {
+    assertTrue(new ArrayHeapPriorityQueue<>(1, reverseComp, true)
+        .bottomUp());
+    assertEquals(false, new ArrayHeapPriorityQueue<>(reverseComp)
+        .bottomUp());
+  }
+}
@@ -0,0 +1,129 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Comparator;
+
+/**
+ * Priority queue that holds at most a fixed number of elements, keeping
+ * the best ones.
+ *
+ * <p>Inside is a MinMaxHeapPriorityQueue, which can get at the worst
+ * element as cheaply as at the best one; that is what makes evicting
+ * the worst element O(log n).</p>
+ *
+ * <p>Once the queue is full, a new element is only admitted if it is
+ * better than the current worst, which then gets evicted. Keep the 1000
+ * most urgent alerts by offering all of them to a queue of capacity
+ * 1000.</p>
+ *
+ * @param <T> Element type.
+ */
+public class BoundedPriorityQueue<T extends Comparable<T>>
+    implements SizedPriorityQueue<T> {
+
+  private final MinMaxHeapPriorityQueue<T> heap;
+  private final int capacity;
+  private Comparator<T> cmp;
+
+  /**
+   * A bounded queue using the "natural" ordering of T.
+   *
+   * @param capacity Most elements the queue holds, at least 1.
+   */
+  public BoundedPriorityQueue(int capacity) {
+    this(capacity, new DefaultComparator<>());
+  }
+
+  /**
+   * A bounded queue using the given comparator for T.
+   *
+   * @param capacity Most elements the queue holds, at least 1.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If capacity is less than 1.
+   */
+  public BoundedPriorityQueue(int capacity, Comparator<T> cmp) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    heap = new MinMaxHeapPriorityQueue<>(capacity, cmp);
+    this.capacity = capacity;
+    this.cmp = cmp;
+  }
+
+  /**
+   * Most elements the queue holds.
+   *
+   * @return the capacity.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int size() {
+    return heap.size();
+  }
+
+  /**
+   * Insert a value if there is room for it or it beats the worst value.
+   *
+   * @param t Value to insert.
+   * @return true if t was admitted, possibly evicting the worst value;
+   *         false if the queue is full and t is no better than its
+   *         worst.
+   */
+  public boolean offer(T t) {
+    if (heap.size() == capacity) {
+      if (cmp.compare(t, heap.worst()) <= 0) {
+        return false;
+      }
+      heap.removeWorst();
+    }
+    heap.insert(t);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Same as offer(): if the queue is full, either t or the current
+   * worst value is dropped.</p>
+   */
+  @Override
+  public void insert(T t) {
+    offer(t);
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    heap.remove();
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    return heap.best();
+  }
+
+  /**
+   * Return the worst value, the one the next eviction would drop.
+   *
+   * @return worst value in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  public T worst() throws EmptyException {
+    return heap.worst();
+  }
+
+  @Override
+  public boolean empty() {
+    return heap.empty();
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the BoundedPriorityQueue to test, with room to spare for
+ * the shared tests.
+ */
+public class BoundedPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new BoundedPriorityQueue<>(1024);
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new BoundedPriorityQueue<>(1024, comp);
+  }
+
+  @Test
+  public void keepsTopK() {
+    Random r = new Random(21);
+    for (int k : new int[] {1, 2, 3, 7, 50}) {
+      BoundedPriorityQueue<Integer> pq = new BoundedPriorityQueue<>(k);
+      ArrayList<Integer> all = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        int v = r.nextInt(500);
+        all.add(v);
+        pq.offer(v);
+        assertTrue(pq.size() <= k);
+      }
+      all.sort(Collections.reverseOrder());
+      assertEquals(all.get(k - 1), pq.worst());
+      for (int i = 0; i < k; i++) {
+        assertEquals(all.get(i), pq.best());
+        pq.remove();
+      }
+      assertTrue(pq.empty());
+    }
+  }
+
+  @Test
+  public void offerReportsAdmission() {
+    BoundedPriorityQueue<Integer> pq =
+        new BoundedPriorityQueue<>(2, reverseComp);
+    assertTrue(pq.offer(5));
+    assertTrue(pq.offer(3));
+    assertEquals(5, pq.worst().intValue());
+    assertFalse(pq.offer(9)); // worse than everything
+    assertFalse(pq.offer(5)); // a tie doesn't get in
+    assertTrue(pq.offer(1)); // evicts 5
+    assertEquals(3, pq.worst().intValue());
+    assertEquals(1, pq.best().intValue());
+    assertEquals(2, pq.size());
+    assertEquals(2, pq.capacity());
+  }
+
+  @Test
+  public void worstTracksRandomRemovals() {
+    BoundedPriorityQueue<Integer> pq = new BoundedPriorityQueue<>(64);
+    ArrayList<Integer> ref = new ArrayList<>();
+    Random r = new Random(22);
+    for (int i = 0; i < 5000; i++) {
+      if (ref.isEmpty() || r.nextInt(3) > 0) {
+        int v = r.nextInt(100);
+        if (pq.offer(v)) {
+          if (ref.size() == 64) {
+            ref.remove(Collections.min(ref));
+          }
+          ref.add(v);
+        } else {
+          assertTrue(v <= Collections.min(ref));
+        }
+      } else {
+        ref.remove(Collections.max(ref));
+        pq.remove();
+      }
+      assertEquals(ref.size(), pq.size());
+      if (!ref.isEmpty()) {
+        assertEquals(Collections.max(ref), pq.best());
+        assertEquals(Collections.min(ref), pq.worst());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void zeroCapacityRejected() {
+    new BoundedPriorityQueue<Integer>(0);
+  }
+}
@@ -0,0 +1,181 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH throughput of the thread-safe PriorityQueue implementations as the
+ * number of threads grows.
+ *
+ * <p>All threads share one queue holding size values, and each benchmark
+ * call is one insert or one pollOrNull(), half and half at random, so
+ * the size stays about where it started. The implementations:</p>
+ * <ul>
+ *   <li>skiplist: ConcurrentSkipListPriorityQueue.</li>
+ *   <li>blocking: a BinaryHeapPriorityQueue behind one lock, in a
+ *       BlockingPriorityQueue.</li>
+ *   <li>striped: StripedPriorityQueue over binary heaps.</li>
+ *   <li>relaxed: MultiQueuePriorityQueue, which gives up exact order.</li>
+ *   <li>jdk: java.util.concurrent.PriorityBlockingQueue, for
+ *       reference.</li>
+ * </ul>
+ *
+ * <p>JMH takes the thread count as an option rather than a parameter, so
+ * run it once per count:</p>
+ * <pre>
+ *   for t in 1 2 4 8 16 32 64; do
+ *     mvn exec:exec -Djmh.args="ConcurrentPriorityQueueBenchmark -t $t"
+ *   done
+ * </pre>
+ *
+ * <p>The numbers only mean something with as many cores as threads; past
+ * that, every implementation mostly measures the scheduler.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentPriorityQueueBenchmark {
+  static final Map<String,
+      Function<Comparator<Integer>, PriorityQueue<Integer>>> IMPLS =
+      new LinkedHashMap<>();
+
+  static {
+    IMPLS.put("skiplist", ConcurrentSkipListPriorityQueue::new);
+    IMPLS.put("blocking", c -> new BlockingPriorityQueue<>(
+        new BinaryHeapPriorityQueue<>(c)));
+    IMPLS.put("striped", c -> new StripedPriorityQueue<>(
+        BinaryHeapPriorityQueue::new, c));
+    IMPLS.put("relaxed", MultiQueuePriorityQueue::new);
+    IMPLS.put("jdk", JdkPriorityQueue::new);
+  }
+
+  /** The queue all threads share. */
+  @State(Scope.Benchmark)
+  public static class Shared {
+    @Param({"skiplist", "blocking", "striped", "relaxed", "jdk"})
+    public String impl;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    PriorityQueue<Integer> pq;
+    private final AtomicLong seeds = new AtomicLong();
+
+    /** Make and fill the queue. */
+    @Setup(Level.Iteration)
+    public void setUp() {
+      Function<Comparator<Integer>, PriorityQueue<Integer>> factory =
+          IMPLS.get(impl);
+      if (factory == null) {
+        throw new IllegalArgumentException("unknown implementation " + impl
+            + ", pick from " + IMPLS.keySet());
+      }
+      pq = factory.apply(Comparator.naturalOrder());
+      SplittableRandom r = new SplittableRandom(size);
+      for (int i = 0; i < size; i++) {
+        pq.insert(r.nextInt());
+      }
+    }
+  }
+
+  /** Each thread's own random numbers. */
+  @State(Scope.Thread)
+  public static class Local {
+    SplittableRandom random;
+
+    /**
+     * Seed the numbers, differently for every thread.
+     *
+     * @param s The shared queue, which hands out the seeds.
+     */
+    @Setup(Level.Trial)
+    public void setUp(Shared s) {
+      random = new SplittableRandom(s.seeds.incrementAndGet());
+    }
+  }
+
+  /**
+   * One insert or one removal.
+   *
+   * @param s The shared queue.
+   * @param l This thread's random numbers.
+   * @return the value removed, or null after an insert or on empty.
+   */
+  @Benchmark
+  public Integer mixed(Shared s, Local l) {
+    int v = l.random.nextInt();
+    if ((v & 1) == 0) {
+      s.pq.insert(v);
+      return null;
+    }
+    return s.pq.pollOrNull();
+  }
+
+  // PriorityBlockingQueue dressed up as one of ours. It keeps the least
+  // value first, so it gets the comparator reversed.
+  private static final class JdkPriorityQueue
+      implements PriorityQueue<Integer> {
+    private final PriorityBlockingQueue<Integer> q;
+
+    JdkPriorityQueue(Comparator<Integer> cmp) {
+      q = new PriorityBlockingQueue<>(11, cmp.reversed());
+    }
+
+    @Override
+    public void insert(Integer t) {
+      q.add(t);
+    }
+
+    @Override
+    public void remove() throws EmptyException {
+      if (q.poll() == null) {
+        throw EmptyException.create();
+      }
+    }
+
+    @Override
+    public Integer best() throws EmptyException {
+      Integer t = q.peek();
+      if (t == null) {
+        throw EmptyException.create();
+      }
+      return t;
+    }
+
+    @Override
+    public Integer pollOrNull() {
+      return q.poll();
+    }
+
+    @Override
+    public Integer peekOrNull() {
+      return q.peek();
+    }
+
+    @Override
+    public boolean empty() {
+      return q.isEmpty();
+    }
+  }
+}
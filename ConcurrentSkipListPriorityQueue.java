@@ -0,0 +1,307 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe priority queue implemented with a lock-free skip list, after
+ * Linden and Jonsson, "A Skiplist-Based Concurrent Priority Queue with
+ * Minimal Memory Contention" (OPODIS 2013).
+ *
+ * <p>The values sit in a skip list sorted best first, and insert() is a
+ * lock-free CAS splice like in any concurrent skip list. The difference
+ * is in remove(). It doesn't unlink the best node; it walks the bottom
+ * level from the head and deletes the first node nobody has deleted yet
+ * by marking the link that leads to it, with a single CAS. The deleted
+ * nodes stay where they are and form a prefix of the list, and since an
+ * insert has to CAS an unmarked link, nothing can be inserted into that
+ * prefix: new values always go behind it, even if they are better than
+ * the deleted ones.</p>
+ *
+ * <p>Once a remover finds a prefix longer than the bound given to the
+ * constructor, it unlinks the whole prefix with one CAS on the head's
+ * bottom link and then moves the head's upper links past it as well;
+ * inserts cut any deleted nodes they still meet up there out of the
+ * way. So the head is written once every bound removes instead of on every
+ * one, which is what keeps removers from fighting over it. The price is
+ * that up to about bound deleted values stay reachable, and a remove
+ * walks past them, until the next cleanup.</p>
+ *
+ * <p>Both operations are linearizable: a remove takes effect at its
+ * marking CAS, and since the prefix only ever grows at its end it takes
+ * the best value in the queue at that moment.</p>
+ *
+ * <p>Every value is stored together with a tiebreaker that makes it
+ * unique: a number handed out once per thread plus a counter only that
+ * thread touches, so inserts don't all hit one shared counter. Inserting
+ * X three times still means removing it three times; equal values come
+ * out in no particular order.</p>
+ *
+ * @param <T> Element type.
+ */
+public class ConcurrentSkipListPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+  private static final int MAX_LEVEL = 32;
+  private static final int DEFAULT_BOUND = 32;
+
+  private final Comparator<Node<T>> order;
+  private final int bound;
+  private final Node<T> head = new Node<>(null, 0, 0, MAX_LEVEL);
+  private final AtomicLong threads = new AtomicLong();
+  private final ThreadLocal<Ticket> tickets =
+      ThreadLocal.withInitial(() -> new Ticket(threads.getAndIncrement()));
+
+  /**
+   * A concurrent queue using the "natural" ordering of T.
+   */
+  public ConcurrentSkipListPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * A concurrent queue using the given comparator for T.
+   *
+   * @param cmp Comparator to use; it has to be safe to call from several
+   *            threads at once.
+   */
+  public ConcurrentSkipListPriorityQueue(Comparator<T> cmp) {
+    this(DEFAULT_BOUND, cmp);
+  }
+
+  /**
+   * A concurrent queue using the given comparator for T, unlinking
+   * removed values once more than bound of them have piled up.
+   *
+   * @param bound Deleted values to let pile up before unlinking them.
+   * @param cmp Comparator to use; it has to be safe to call from several
+   *            threads at once.
+   * @throws IllegalArgumentException If bound is less than 1.
+   */
+  public ConcurrentSkipListPriorityQueue(int bound, Comparator<T> cmp) {
+    if (bound < 1) {
+      throw new IllegalArgumentException("bound must be at least 1");
+    }
+    this.bound = bound;
+    order = (a, b) -> {
+      int c = cmp.compare(b.value, a.value); // best first
+      if (c != 0) {
+        return c;
+      }
+      c = Long.compare(a.seq, b.seq);
+      return c != 0 ? c : Long.compare(a.thread, b.thread);
+    };
+  }
+
+  @Override
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void insert(T t) {
+    Ticket ticket = tickets.get();
+    Node<T> node = new Node<>(t, ticket.thread, ticket.next++, level());
+    Node<T>[] preds = new Node[node.level];
+    Node<T>[] succs = new Node[node.level];
+    do {
+      find(node, preds, succs);
+      node.next.set(succs[0], false);
+    } while (!preds[0].next.compareAndSet(succs[0], node, false, false));
+    // The node is in the queue now, the upper levels only make finding
+    // things faster. Stop once it's been removed again.
+    for (int i = 1; i < node.level; i++) {
+      while (true) {
+        node.up.set(i, succs[i]);
+        if (node.next.isMarked()
+            || preds[i].up.compareAndSet(i, succs[i], node)) {
+          break;
+        }
+        find(node, preds, succs);
+      }
+    }
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (pollOrNull() == null) {
+      throw EmptyException.create();
+    }
+  }
+
+  /**
+   * Remove and return the best value, without throwing on empty.
+   *
+   * <p>Use this instead of best() followed by remove() when other
+   * threads may be removing values too: the two calls are not atomic
+   * together, this one is.</p>
+   *
+   * @return best value, or null if the queue is empty.
+   */
+  @Override
+  public T pollOrNull() {
+    boolean[] marked = new boolean[1];
+    Node<T> first = head.next.getReference();
+    Node<T> x = head;
+    int deleted = 0;
+    while (true) {
+      Node<T> next = x.next.get(marked);
+      if (next == null) {
+        return null;
+      }
+      if (marked[0]) {
+        x = next;
+        deleted++;
+        if (deleted % bound == 0 && head.next.getReference() != first) {
+          // unlinked behind our back, start over from the new prefix
+          first = head.next.getReference();
+          x = head;
+          deleted = 0;
+        }
+      } else if (x.next.compareAndSet(next, next, false, true)) {
+        if (deleted >= bound) {
+          unlink(first, next);
+        }
+        return next.value;
+      }
+    }
+  }
+
+  @Override
+  public T peekOrNull() {
+    Node<T> x = head;
+    while (x.next.isMarked()) {
+      x = x.next.getReference();
+    }
+    Node<T> next = x.next.getReference();
+    return next == null ? null : next.value;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    T t = peekOrNull();
+    if (t == null) {
+      throw EmptyException.create();
+    }
+    return t;
+  }
+
+  @Override
+  public boolean empty() {
+    return peekOrNull() == null;
+  }
+
+  // Random level for a new node, 1 with probability 1/2, 2 with
+  // probability 1/4, and so on.
+  private static int level() {
+    int bits = ThreadLocalRandom.current().nextInt() | 1 << MAX_LEVEL - 1;
+    return Integer.numberOfTrailingZeros(bits) + 1;
+  }
+
+  // Fills in where node goes on each of its levels: between preds[i] and
+  // succs[i]. A node is deleted if its own bottom link is marked; that
+  // misses the last deleted node, which doesn't matter. Up top, deleted
+  // nodes are cut out of the level as we pass them, so nobody has to
+  // walk them again. Down at the bottom they count as better than
+  // everything, so node always ends up behind the deleted prefix.
+  private void find(Node<T> node, Node<T>[] preds, Node<T>[] succs) {
+    Node<T> x = head;
+    for (int i = MAX_LEVEL - 1; i > 0; i--) {
+      Node<T> next = x.up.get(i);
+      while (next != null) {
+        if (next.next.isMarked()) {
+          Node<T> after = next.up.get(i);
+          next = x.up.compareAndSet(i, next, after) ? after : x.up.get(i);
+        } else if (order.compare(next, node) < 0) {
+          x = next;
+          next = x.up.get(i);
+        } else {
+          break;
+        }
+      }
+      if (i < preds.length) {
+        preds[i] = x;
+        succs[i] = next;
+      }
+    }
+    if (x.next.isMarked()) {
+      x = head; // deleted since we got there, the prefix is shorter
+    }
+    Node<T> first = head.next.getReference();
+    boolean[] marked = new boolean[1];
+    int deleted = 0;
+    while (true) {
+      Node<T> next = x.next.get(marked);
+      if (next == null || !marked[0] && order.compare(next, node) > 0) {
+        preds[0] = x;
+        succs[0] = next;
+        return;
+      }
+      x = next;
+      if (marked[0] && ++deleted % bound == 0
+          && head.next.getReference() != first) {
+        // unlinked behind our back, start over from the new prefix
+        first = head.next.getReference();
+        x = head;
+      }
+    }
+  }
+
+  // Unlinks the deleted prefix from first up to, but not including, last,
+  // which stays as the head's marked successor. Only one remover gets to
+  // do this for a given prefix; the others just move on.
+  private void unlink(Node<T> first, Node<T> last) {
+    if (!head.next.compareAndSet(first, last, true, true)) {
+      return;
+    }
+    for (int i = MAX_LEVEL - 1; i > 0; i--) {
+      Node<T> old = head.up.get(i);
+      Node<T> next = old;
+      while (next != null && next.next.isMarked()) {
+        next = next.up.get(i);
+      }
+      if (next != old) {
+        head.up.compareAndSet(i, old, next);
+      }
+    }
+  }
+
+  // A value plus the thread number and sequence number that make it
+  // unique. The bottom link is marked once the node it leads to has been
+  // removed; the upper links, up[1] to up[level - 1], are never marked.
+  private static final class Node<T> {
+    final T value;
+    final long thread;
+    final long seq;
+    final int level;
+    final AtomicMarkableReference<Node<T>> next =
+        new AtomicMarkableReference<>(null, false);
+    final AtomicReferenceArray<Node<T>> up;
+
+    Node(T value, long thread, long seq, int level) {
+      this.value = value;
+      this.thread = thread;
+      this.seq = seq;
+      this.level = level;
+      up = new AtomicReferenceArray<>(level);
+    }
+  }
+
+  // One thread's tiebreaker state for this queue. The number is not the
+  // thread's id, since ids of dead threads get reused.
+  private static final class Ticket {
+    final long thread;
+    long next;
+
+    Ticket(long thread) {
+      this.thread = thread;
+    }
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the ConcurrentSkipListPriorityQueue to test, and hammer it
+ * from several threads.
+ */
+public class ConcurrentSkipListPriorityQueueTest extends PriorityQueueTest {
+  private static final int THREADS = 4;
+  private static final int PER_THREAD = 20000;
+
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new ConcurrentSkipListPriorityQueue<>();
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new ConcurrentSkipListPriorityQueue<>(comp);
+  }
+
+  private static void runAll(ArrayList<Thread> threads)
+      throws InterruptedException {
+    for (Thread t : threads) {
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+  }
+
+  @Test
+  public void concurrentInsertAndRemoveLoseNothing()
+      throws InterruptedException {
+    ConcurrentSkipListPriorityQueue<Integer> pq =
+        new ConcurrentSkipListPriorityQueue<>();
+    int total = THREADS * PER_THREAD;
+    AtomicIntegerArray seen = new AtomicIntegerArray(total);
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < THREADS; p++) {
+      final int base = p * PER_THREAD;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < PER_THREAD; i++) {
+          pq.insert(base + i);
+          // every value is inserted twice, so duplicates get exercised
+          pq.insert(base + i);
+        }
+      }));
+      threads.add(new Thread(() -> {
+        int removed = 0;
+        while (removed < 2 * PER_THREAD) {
+          Integer v = pq.pollOrNull();
+          if (v != null) {
+            seen.incrementAndGet(v);
+            removed++;
+          }
+        }
+      }));
+    }
+    runAll(threads);
+    assertNull(pq.pollOrNull());
+    for (int i = 0; i < total; i++) {
+      assertEquals(2, seen.get(i));
+    }
+  }
+
+  @Test
+  public void equalValuesFromManyThreadsAreKept()
+      throws InterruptedException {
+    ConcurrentSkipListPriorityQueue<Integer> pq =
+        new ConcurrentSkipListPriorityQueue<>();
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < THREADS; p++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < PER_THREAD; i++) {
+          pq.insert(7); // same value, same per-thread counts everywhere
+        }
+      }));
+    }
+    runAll(threads);
+    int n = 0;
+    while (pq.pollOrNull() != null) {
+      n++;
+    }
+    assertEquals(THREADS * PER_THREAD, n);
+  }
+
+  @Test
+  public void concurrentRemovesSeeDecreasingValues()
+      throws InterruptedException {
+    ConcurrentSkipListPriorityQueue<Integer> pq =
+        new ConcurrentSkipListPriorityQueue<>();
+    for (int i = 0; i < THREADS * PER_THREAD; i++) {
+      pq.insert(i);
+    }
+    // removes are linearizable, so no thread can ever get a better value
+    // after a worse one while nothing is being inserted
+    boolean[] ordered = new boolean[THREADS];
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < THREADS; c++) {
+      final int id = c;
+      threads.add(new Thread(() -> {
+        int prev = Integer.MAX_VALUE;
+        boolean ok = true;
+        Integer v;
+        while ((v = pq.pollOrNull()) != null) {
+          ok &= v < prev;
+          prev = v;
+        }
+        ordered[id] = ok;
+      }));
+    }
+    runAll(threads);
+    for (boolean ok : ordered) {
+      assertTrue(ok);
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void unlinkingSmallPrefixesLosesNothing()
+      throws InterruptedException {
+    // a bound of 1 unlinks on nearly every remove, racing the inserts
+    Comparator<Integer> natural = Comparator.naturalOrder();
+    ConcurrentSkipListPriorityQueue<Integer> pq =
+        new ConcurrentSkipListPriorityQueue<>(1, natural);
+    int total = THREADS * PER_THREAD;
+    AtomicIntegerArray seen = new AtomicIntegerArray(total);
+    ArrayList<Thread> threads = new ArrayList<>();
+    for (int p = 0; p < THREADS; p++) {
+      final int base = p * PER_THREAD;
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < PER_THREAD; i++) {
+          pq.insert(base + i);
+          Integer v = pq.pollOrNull();
+          if (v != null) {
+            seen.incrementAndGet(v);
+          }
+        }
+      }));
+    }
+    runAll(threads);
+    Integer v;
+    while ((v = pq.pollOrNull()) != null) {
+      seen.incrementAndGet(v);
+    }
+    for (int i = 0; i < total; i++) {
+      assertEquals(1, seen.get(i));
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void removesInOrderAcrossUnlinks() {
+    Comparator<Integer> natural = Comparator.naturalOrder();
+    ConcurrentSkipListPriorityQueue<Integer> pq =
+        new ConcurrentSkipListPriorityQueue<>(3, natural);
+    for (int i = 0; i < 100; i++) {
+      pq.insert(i);
+    }
+    for (int i = 99; i >= 50; i--) {
+      assertEquals(i, pq.pollOrNull().intValue());
+    }
+    // better than everything removed so far, so it has to go behind the
+    // deleted prefix and still come out first
+    pq.insert(1000);
+    assertEquals(1000, pq.best().intValue());
+    assertEquals(1000, pq.pollOrNull().intValue());
+    for (int i = 49; i >= 0; i--) {
+      assertEquals(i, pq.pollOrNull().intValue());
+    }
+    assertNull(pq.pollOrNull());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void boundMustBePositive() {
+    new ConcurrentSkipListPriorityQueue<Integer>(0,
+        Comparator.naturalOrder());
+  }
+}
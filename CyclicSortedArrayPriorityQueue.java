@@ -0,0 +1,339 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Priority queue implemented as a sorted circular array.
+ *
+ * <p>Like SortedArrayPriorityQueue, but with the best element at the
+ * end, which is what that class's remove() comment wishes for: removing
+ * it is just forgetting the last slot, O(1). The array is treated as
+ * cyclic (slot head holds the worst element, and indices wrap around),
+ * so an insert can make room by shifting whichever side of the
+ * insertion point is shorter, one System.arraycopy per contiguous
+ * piece. That halves the O(n) insert cost on average.</p>
+ *
+ * <p>Positions are found with a plain binary search that does one
+ * comparison per step; no sentinel needed.</p>
+ *
+ * @param <T> Element type.
+ */
+public class CyclicSortedArrayPriorityQueue<T extends Comparable<T>>
+    implements TraversablePriorityQueue<T>,
+    SizedPriorityQueue<T> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] buf; // length is a power of two
+  private int mask;
+  private int head; // slot of the worst element
+  private int size;
+  private Comparator<T> cmp;
+  private int modCount; // bumped on every change, for fail-fast views
+
+  /**
+   * A cyclic sorted array using the "natural" ordering of T.
+   */
+  public CyclicSortedArrayPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * A cyclic sorted array using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public CyclicSortedArrayPriorityQueue(Comparator<T> cmp) {
+    this(INITIAL_CAPACITY, cmp);
+  }
+
+  /**
+   * A cyclic sorted array with room for at least the given number of
+   * elements before it has to grow.
+   *
+   * @param capacity Initial capacity, at least 1; rounded up to a power
+   *                 of two.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If capacity is less than 1 or
+   *                                  too large.
+   */
+  public CyclicSortedArrayPriorityQueue(int capacity, Comparator<T> cmp) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException(
+          "capacity must be between 1 and 2^30");
+    }
+    int n = 1;
+    while (n < capacity) {
+      n *= 2;
+    }
+    buf = new Object[n];
+    mask = buf.length - 1;
+    this.cmp = cmp;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  // Element at position i in sorted order, 0 being the worst.
+  @SuppressWarnings("unchecked")
+  private T get(int i) {
+    return (T) buf[(head + i) & mask];
+  }
+
+  // Number of elements that are no better than t, which is where t
+  // goes; one comparison per step.
+  private int find(T t) {
+    int lo = 0;
+    int len = size;
+    while (len > 0) {
+      int half = len >>> 1;
+      int mid = lo + half;
+      if (cmp.compare(get(mid), t) <= 0) {
+        lo = mid + 1;
+        len -= half + 1;
+      } else {
+        len = half;
+      }
+    }
+    return lo;
+  }
+
+  // Doubles the capacity, unwrapping the elements to start at slot 0.
+  private void grow() {
+    Object[] bigger = new Object[buf.length * 2];
+    int first = Math.min(size, buf.length - head);
+    System.arraycopy(buf, head, bigger, 0, first);
+    System.arraycopy(buf, 0, bigger, first, size - first);
+    buf = bigger;
+    mask = buf.length - 1;
+    head = 0;
+  }
+
+  // Moves the len elements starting at slot src one slot down, wrapping
+  // around. Goes front to back so nothing is overwritten early.
+  private void shiftDown(int src, int len) {
+    while (len > 0) {
+      if (src == 0) {
+        buf[mask] = buf[0];
+        src = 1;
+        len--;
+        continue;
+      }
+      int n = Math.min(len, buf.length - src);
+      System.arraycopy(buf, src, buf, src - 1, n);
+      src = (src + n) & mask;
+      len -= n;
+    }
+  }
+
+  // Moves the len elements starting at slot src one slot up, wrapping
+  // around. Goes back to front so nothing is overwritten early.
+  private void shiftUp(int src, int len) {
+    while (len > 0) {
+      int last = (src + len - 1) & mask;
+      if (last == mask) {
+        buf[0] = buf[mask];
+        len--;
+        continue;
+      }
+      int n = Math.min(len, last + 1);
+      System.arraycopy(buf, last - n + 1, buf, last - n + 2, n);
+      len -= n;
+    }
+  }
+
+  @Override
+  public void insert(T t) {
+    if (size == buf.length) {
+      grow();
+    }
+    modCount++;
+    int p = find(t);
+    if (p < size - p) {
+      // fewer elements on the worst side, move those down
+      shiftDown(head, p);
+      head = (head - 1) & mask;
+    } else {
+      shiftUp((head + p) & mask, size - p);
+    }
+    buf[(head + p) & mask] = t;
+    size++;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Copies everything into one array and sorts it once, instead of
+   * k insertions with O(n) shifting each.</p>
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void insertAll(Collection<? extends T> ts) {
+    if (ts.isEmpty()) {
+      return;
+    }
+    modCount++;
+    int n = size + ts.size();
+    int capacity = buf.length;
+    while (capacity < n) {
+      capacity *= 2;
+    }
+    Object[] all = new Object[capacity];
+    for (int i = 0; i < size; i++) {
+      all[i] = get(i);
+    }
+    int i = size;
+    for (T t : ts) {
+      all[i++] = t;
+    }
+    Arrays.sort(all, 0, n, (a, b) -> cmp.compare((T) a, (T) b));
+    buf = all;
+    mask = buf.length - 1;
+    head = 0;
+    size = n;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    removeBest();
+  }
+
+  // Forgets the best element of a non-empty queue and returns it.
+  private T removeBest() {
+    modCount++;
+    int slot = (head + --size) & mask;
+    @SuppressWarnings("unchecked")
+    T t = (T) buf[slot];
+    buf[slot] = null; // don't hang on to removed elements
+    return t;
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = 0;
+    while (n < max && size > 0) {
+      sink.add(removeBest());
+      n++;
+    }
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = 0;
+    while (n < sink.length && size > 0) {
+      sink[n++] = removeBest();
+    }
+    return n;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return get(size - 1);
+  }
+
+  @Override
+  public T peekOrNull() {
+    return size == 0 ? null : get(size - 1);
+  }
+
+  @Override
+  public T pollOrNull() {
+    return size == 0 ? null : removeBest();
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Walks the array back from the best end; nothing is copied.</p>
+   */
+  @Override
+  public Iterable<T> orderedView(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative");
+    }
+    return () -> new Iterator<T>() {
+      private final int expected = modCount;
+      private final int stop = size - Math.min(limit, size);
+      private int next = size - 1;
+
+      @Override
+      public boolean hasNext() {
+        return next >= stop;
+      }
+
+      @Override
+      public T next() {
+        if (modCount != expected) {
+          throw new ConcurrentModificationException();
+        }
+        if (next < stop) {
+          throw new NoSuchElementException();
+        }
+        return get(next--);
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Here the order is best first.</p>
+   */
+  @Override
+  public void forEach(Consumer<? super T> action) {
+    for (T t : orderedView(size)) {
+      action.accept(t);
+    }
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return StreamSupport.stream(new ArraySpliterator<>(this::get, 0, size,
+        () -> modCount), false);
+  }
+
+  @Override
+  public Stream<T> parallelStream() {
+    return StreamSupport.stream(new ArraySpliterator<>(this::get, 0, size,
+        () -> modCount), true);
+  }
+
+  @Override
+  public Stream<T> orderedStream() {
+    return StreamSupport.stream(Spliterators.spliterator(
+        orderedView(size).iterator(), size, Spliterator.ORDERED), false);
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
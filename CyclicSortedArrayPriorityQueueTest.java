@@ -0,0 +1,85 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the CyclicSortedArrayPriorityQueue to test.
+ */
+public class CyclicSortedArrayPriorityQueueTest
+    extends TraversablePriorityQueueTest {
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit() {
+    return new CyclicSortedArrayPriorityQueue<>();
+  }
+
+  @Override
+  protected TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp) {
+    return new CyclicSortedArrayPriorityQueue<>(comp);
+  }
+
+  @Test
+  public void wrapsAroundAndGrows() {
+    // capacity 4 so both shift directions wrap all the time
+    CyclicSortedArrayPriorityQueue<Integer> pq =
+        new CyclicSortedArrayPriorityQueue<>(3, reverseComp);
+    ArrayList<Integer> ref = new ArrayList<>();
+    Random r = new Random(23);
+    for (int i = 0; i < 20000; i++) {
+      if (ref.isEmpty() || r.nextInt(5) < 3 - ref.size() / 40) {
+        int v = r.nextInt(50);
+        pq.insert(v);
+        ref.add(v);
+      } else {
+        Integer min = Collections.min(ref);
+        assertEquals(min, pq.best());
+        ref.remove(min);
+        pq.remove();
+      }
+      assertEquals(ref.size(), pq.size());
+    }
+    Collections.sort(ref);
+    for (int v : ref) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void insertComparesOncePerSearchStep() {
+    int[] calls = new int[1];
+    CyclicSortedArrayPriorityQueue<Integer> pq =
+        new CyclicSortedArrayPriorityQueue<>((a, b) -> {
+          calls[0]++;
+          return a.compareTo(b);
+        });
+    Random r = new Random(24);
+    for (int n = 0; n < 2000; n++) {
+      calls[0] = 0;
+      pq.insert(r.nextInt());
+      // ceil(log2(n + 1)) steps
+      assertTrue(calls[0] <= 32 - Integer.numberOfLeadingZeros(n));
+    }
+  }
+
+  @Test
+  public void testInsertAllMergesWithExisting() {
+    unit.insert(5);
+    unit.insert(1);
+    unit.insertAll(Arrays.asList(4, 9, 0, 5));
+    for (int v : new int[] {9, 5, 5, 4, 1, 0}) {
+      assertEquals(v, unit.best().intValue());
+      unit.remove();
+    }
+    assertTrue(unit.empty());
+  }
+}
@@ -0,0 +1,149 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Priority queue implemented as a d-ary heap.
+ *
+ * <p>Same ranked array idea as BinaryHeapPriorityQueue, except that every
+ * node has d children: the children of slot i are d*i+1 through d*i+d,
+ * and the parent of slot i is (i-1)/d. A wider heap is shallower, so
+ * remove() touches fewer levels, and the d children it compares at each
+ * level sit next to each other in memory.</p>
+ *
+ * @param <T> Element type.
+ */
+public class DAryHeapPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private static final int DEFAULT_ARITY = 4;
+
+  private ArrayList<T> list;
+  private Comparator<T> cmp;
+  private final int d;
+
+  /**
+   * A 4-ary heap using the "natural" ordering of T.
+   */
+  public DAryHeapPriorityQueue() {
+    this(DEFAULT_ARITY);
+  }
+
+  /**
+   * A d-ary heap using the "natural" ordering of T.
+   *
+   * @param d Number of children per node, at least 2.
+   */
+  public DAryHeapPriorityQueue(int d) {
+    this(d, new DefaultComparator<>());
+  }
+
+  /**
+   * A 4-ary heap using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public DAryHeapPriorityQueue(Comparator<T> cmp) {
+    this(DEFAULT_ARITY, cmp);
+  }
+
+  /**
+   * A d-ary heap using the given comparator for T.
+   *
+   * @param d Number of children per node, at least 2.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If d is less than 2.
+   */
+  public DAryHeapPriorityQueue(int d, Comparator<T> cmp) {
+    if (d < 2) {
+      throw new IllegalArgumentException("arity must be at least 2");
+    }
+    list = new ArrayList<>();
+    this.cmp = cmp;
+    this.d = d;
+  }
+
+  /**
+   * Number of children per node.
+   *
+   * @return the arity of this heap.
+   */
+  public int arity() {
+    return d;
+  }
+
+  @Override
+  public void insert(T t) {
+    list.add(t); // make room at the end
+    int curr = list.size() - 1;
+    while (curr > 0) {
+      int parent = (curr - 1) / d;
+      T p = list.get(parent);
+      if (cmp.compare(p, t) >= 0) {
+        break;
+      }
+      list.set(curr, p); // move parent down into the hole
+      curr = parent;
+    }
+    list.set(curr, t);
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (list.isEmpty()) {
+      throw EmptyException.create();
+    }
+    T last = list.remove(list.size() - 1);
+    int size = list.size();
+    if (size == 0) {
+      return;
+    }
+    int curr = 0;
+    while (true) {
+      int first = d * curr + 1;
+      if (first >= size) {
+        break;
+      }
+      // find the best of (up to) d children
+      int best = first;
+      T bestChild = list.get(first);
+      int end = Math.min(first + d, size);
+      for (int c = first + 1; c < end; c++) {
+        T child = list.get(c);
+        if (cmp.compare(bestChild, child) < 0) {
+          best = c;
+          bestChild = child;
+        }
+      }
+      if (cmp.compare(last, bestChild) >= 0) {
+        break;
+      }
+      list.set(curr, bestChild); // move child up into the hole
+      curr = best;
+    }
+    list.set(curr, last);
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (list.isEmpty()) {
+      throw EmptyException.create();
+    }
+    return list.get(0);
+  }
+
+  @Override
+  public boolean empty() {
+    return list.isEmpty();
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the DAryHeapPriorityQueue to test.
+ */
+public class DAryHeapPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new DAryHeapPriorityQueue<>();
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new DAryHeapPriorityQueue<>(comp);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void arityBelowTwoRejected() {
+    new DAryHeapPriorityQueue<Integer>(1);
+  }
+
+  @Test
+  public void everyArityRemovesInSortedOrder() {
+    for (int d : new int[] {2, 3, 4, 8, 16}) {
+      PriorityQueue<Integer> dary = new DAryHeapPriorityQueue<>(d);
+      ArrayList<Integer> expected = new ArrayList<>();
+      Random r = new Random(d);
+      for (int i = 0; i < 500; i++) {
+        int v = r.nextInt(100);
+        dary.insert(v);
+        expected.add(v);
+      }
+      expected.sort(Collections.reverseOrder());
+      for (Integer v : expected) {
+        assertEquals(v, dary.best());
+        dary.remove();
+      }
+      assertTrue(dary.empty());
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+
+/**
+ * Priority queue of primitive doubles implemented as a binary heap.
+ *
+ * <p>Same ranked array representation as BinaryHeapPriorityQueue, but
+ * the keys live in a raw double[] so nothing gets boxed and no Comparator
+ * is called on the hot path. The only allocation is growing the array
+ * when it fills up.</p>
+ *
+ * <p>By default best == max; pass true to the constructor to get a
+ * queue where best == min instead.</p>
+ */
+public class DoubleBinaryHeapPriorityQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private double[] heap;
+  private int size;
+  private final boolean min;
+
+  /**
+   * A double heap where best is the largest value.
+   */
+  public DoubleBinaryHeapPriorityQueue() {
+    this(false);
+  }
+
+  /**
+   * A double heap with the given ordering.
+   *
+   * @param min True if best should be the smallest value,
+   *            false if it should be the largest.
+   */
+  public DoubleBinaryHeapPriorityQueue(boolean min) {
+    heap = new double[INITIAL_CAPACITY];
+    this.min = min;
+  }
+
+  // Should a be closer to the root than b? Double.compare gives us a
+  // total order, so NaN and -0.0 don't break the heap property.
+  private boolean better(double a, double b) {
+    return min ? Double.compare(a, b) < 0 : Double.compare(a, b) > 0;
+  }
+
+  /**
+   * Insert a value.
+   *
+   * @param t Value to insert.
+   */
+  public void insert(double t) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    // move the "hole" up instead of swapping at every level
+    int curr = size++;
+    while (curr > 0) {
+      int parent = (curr - 1) / 2;
+      if (!better(t, heap[parent])) {
+        break;
+      }
+      heap[curr] = heap[parent];
+      curr = parent;
+    }
+    heap[curr] = t;
+  }
+
+  /**
+   * Remove best value.
+   *
+   * @return the value that was removed.
+   * @throws EmptyException If queue is empty.
+   */
+  public double removeDouble() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    double best = heap[0];
+    double last = heap[--size];
+    int curr = 0;
+    int half = size / 2;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      if (child + 1 < size && better(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!better(heap[child], last)) {
+        break;
+      }
+      heap[curr] = heap[child];
+      curr = child;
+    }
+    heap[curr] = last;
+    return best;
+  }
+
+  /**
+   * Return best value.
+   *
+   * @return best value in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  public double bestDouble() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return heap[0];
+  }
+
+  /**
+   * Check if no elements present.
+   *
+   * @return True if queue is empty, false otherwise.
+   */
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Number of elements in the queue.
+   *
+   * @return Number of elements.
+   */
+  public int size() {
+    return size;
+  }
+}
@@ -0,0 +1,129 @@
+package hw5;
+
+import exceptions.EmptyException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing the DoubleBinaryHeapPriorityQueue, mirroring PriorityQueueTest.
+ */
+public class DoubleBinaryHeapPriorityQueueTest {
+  private DoubleBinaryHeapPriorityQueue unit;
+  private DoubleBinaryHeapPriorityQueue reverseUnit;
+
+  @Before
+  public void setupTests() {
+    unit = new DoubleBinaryHeapPriorityQueue();
+    reverseUnit = new DoubleBinaryHeapPriorityQueue(true);
+  }
+
+  @Test
+  public void newQueueEmpty() {
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForUnit() {
+    unit.bestDouble();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.bestDouble();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForUnit() {
+    unit.removeDouble();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.removeDouble();
+  }
+
+  @Test
+  public void queueNotEmptyAfterInsert() {
+    unit.insert(1);
+    assertFalse(unit.empty());
+
+    reverseUnit.insert(1);
+    assertFalse(reverseUnit.empty());
+  }
+
+  @Test
+  public void testInsertUpdatesBest() {
+    unit.insert(2);
+    unit.insert(1);
+    assertEquals(2, unit.bestDouble(), 0.0);
+    unit.insert(4);
+    unit.insert(3);
+    assertEquals(4, unit.bestDouble(), 0.0);
+
+    reverseUnit.insert(2);
+    reverseUnit.insert(1);
+    assertEquals(1, reverseUnit.bestDouble(), 0.0);
+    reverseUnit.insert(3);
+    reverseUnit.insert(4);
+    assertEquals(1, reverseUnit.bestDouble(), 0.0);
+  }
+
+  @Test
+  public void testRemoveUpdatesBest() {
+    unit.insert(1);
+    unit.insert(4);
+    unit.insert(0);
+    unit.insert(8);
+    unit.insert(2);
+    assertEquals(8, unit.removeDouble(), 0.0);
+    assertEquals(4, unit.removeDouble(), 0.0);
+    assertEquals(2, unit.removeDouble(), 0.0);
+    assertEquals(1, unit.removeDouble(), 0.0);
+    assertEquals(0, unit.bestDouble(), 0.0);
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(4);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(2);
+    assertEquals(0, reverseUnit.removeDouble(), 0.0);
+    assertEquals(1, reverseUnit.removeDouble(), 0.0);
+    assertEquals(2, reverseUnit.removeDouble(), 0.0);
+    assertEquals(4, reverseUnit.removeDouble(), 0.0);
+    assertEquals(8, reverseUnit.bestDouble(), 0.0);
+  }
+
+  @Test
+  public void testWithDuplicateElements() {
+    unit.insert(1);
+    unit.insert(8);
+    unit.insert(0);
+    unit.insert(8);
+    unit.removeDouble();
+    assertEquals(8, unit.bestDouble(), 0.0);
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(0);
+    reverseUnit.removeDouble();
+    assertEquals(0, reverseUnit.bestDouble(), 0.0);
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (int i = 0; i < 100; i++) {
+      unit.insert((i * 37) % 100);
+    }
+    assertEquals(100, unit.size());
+    for (int i = 99; i >= 0; i--) {
+      assertEquals(i, unit.removeDouble(), 0.0);
+    }
+    assertTrue(unit.empty());
+  }
+}
@@ -7,6 +7,13 @@ package exceptions;
  * if asked to produce a value when they have none.</p>
  */
 public class EmptyException extends RuntimeException {
+  // Set -Dexceptions.stackless=true to have create() hand out one shared
+  // instance without a stack trace, which is much cheaper to throw.
+  private static final boolean STACKLESS =
+      Boolean.getBoolean("exceptions.stackless");
+  private static final EmptyException SHARED = new EmptyException(
+      "empty (stackless)", false);
+
   /**
    * Constructs a new EmptyException.
    */
@@ -22,4 +29,30 @@ public class EmptyException extends RuntimeException {
   public EmptyException(String message) {
     super(message);
   }
-}
\ No newline at end of file
+
+  // Only used for the shared instance: no cause, no suppression, and no
+  // stack trace.
+  private EmptyException(String message, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+  }
+
+  /**
+   * Returns the shared EmptyException without a stack trace.
+   *
+   * @return the one stackless instance.
+   */
+  public static EmptyException stackless() {
+    return SHARED;
+  }
+
+  /**
+   * Returns an EmptyException to throw: a fresh one by default, or the
+   * shared stackless one if the exceptions.stackless system property is
+   * true.
+   *
+   * @return the exception to throw.
+   */
+  public static EmptyException create() {
+    return STACKLESS ? SHARED : new EmptyException();
+  }
+}
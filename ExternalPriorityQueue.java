@@ -0,0 +1,442 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * Priority queue that holds more elements than fit in memory.
+ *
+ * <p>New elements go into an in-memory BinaryHeapPriorityQueue of
+ * bounded size. When it fills up, it is drained best first into a
+ * "run" file, so every run on disk is sorted. The best element overall
+ * is then either the best in the buffer or the head of one of the runs;
+ * the runs sit in a second heap ordered by their heads, so finding the
+ * best run is a best() call. This is the sequence heap idea: disk is
+ * only ever written and read front to back, one buffer at a time.</p>
+ *
+ * <p>There are never more than maxRuns runs: when a spill makes that
+ * many, the shorter half of them is merged into one longer run, the
+ * same k-way merge that finds the best element. So memory use is bounded
+ * by the buffer capacity plus maxRuns read buffers, and so is the number
+ * of open files. A run file is deleted as soon as it has been read to
+ * the end, and close() deletes whatever is left.</p>
+ *
+ * @param <T> Element type.
+ */
+public class ExternalPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T>, AutoCloseable {
+
+  private static final int DEFAULT_READ_BUFFER = 64 * 1024;
+  private static final int DEFAULT_MAX_RUNS = 16;
+
+  private final Path dir;
+  private final RecordCodec<T> codec;
+  private final Comparator<T> cmp;
+  private final int bufferCapacity;
+  private final int readBufferBytes;
+  private final int maxRuns;
+
+  private BinaryHeapPriorityQueue<T> buffer;
+  private int buffered;
+  private BinaryHeapPriorityQueue<Run> runs;
+  private int runCount;
+  private int nextRun;
+  private long size;
+  private boolean closed;
+
+  /**
+   * An external queue using the "natural" ordering of T.
+   *
+   * @param dir Directory for the run files, created if needed.
+   * @param codec Codec for the elements.
+   * @param bufferCapacity Elements kept in memory before spilling.
+   */
+  public ExternalPriorityQueue(Path dir, RecordCodec<T> codec,
+                               int bufferCapacity) {
+    this(dir, codec, new DefaultComparator<>(), bufferCapacity,
+        DEFAULT_READ_BUFFER);
+  }
+
+  /**
+   * An external queue using the given comparator for T.
+   *
+   * @param dir Directory for the run files, created if needed.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use.
+   * @param bufferCapacity Elements kept in memory before spilling, at
+   *                       least 1.
+   * @param readBufferBytes Bytes buffered per run while reading it back;
+   *                        at least one record's worth is used.
+   * @throws IllegalArgumentException If bufferCapacity is less than 1.
+   * @throws UncheckedIOException If the directory can't be created.
+   */
+  public ExternalPriorityQueue(Path dir, RecordCodec<T> codec,
+                               Comparator<T> cmp, int bufferCapacity,
+                               int readBufferBytes) {
+    this(dir, codec, cmp, bufferCapacity, readBufferBytes,
+        DEFAULT_MAX_RUNS);
+  }
+
+  /**
+   * An external queue using the given comparator for T, keeping at most
+   * maxRuns runs (and open files) at a time.
+   *
+   * @param dir Directory for the run files, created if needed.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use.
+   * @param bufferCapacity Elements kept in memory before spilling, at
+   *                       least 1.
+   * @param readBufferBytes Bytes buffered per run while reading it back;
+   *                        at least one record's worth is used.
+   * @param maxRuns Most runs on disk, at least 2.
+   * @throws IllegalArgumentException If bufferCapacity is less than 1 or
+   *                                  maxRuns is less than 2.
+   * @throws UncheckedIOException If the directory can't be created.
+   */
+  public ExternalPriorityQueue(Path dir, RecordCodec<T> codec,
+                               Comparator<T> cmp, int bufferCapacity,
+                               int readBufferBytes, int maxRuns) {
+    if (bufferCapacity < 1) {
+      throw new IllegalArgumentException(
+          "buffer capacity must be at least 1");
+    }
+    if (maxRuns < 2) {
+      throw new IllegalArgumentException("maxRuns must be at least 2");
+    }
+    this.maxRuns = maxRuns;
+    this.dir = dir;
+    this.codec = codec;
+    this.cmp = cmp;
+    this.bufferCapacity = bufferCapacity;
+    int rec = codec.recordSize();
+    this.readBufferBytes = Math.max(1, readBufferBytes / rec) * rec;
+    buffer = new BinaryHeapPriorityQueue<>(cmp);
+    runs = new BinaryHeapPriorityQueue<>();
+    try {
+      Files.createDirectories(dir);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Number of elements in the queue, in memory and on disk.
+   *
+   * @return Number of elements.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Number of run files that still hold elements.
+   *
+   * @return number of runs on disk.
+   */
+  public int runs() {
+    return runCount;
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("queue is closed");
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException If a full buffer can't be spilled or
+   *                              the runs can't be merged; t is not
+   *                              inserted, but nothing already in the
+   *                              queue is lost.
+   */
+  @Override
+  public void insert(T t) {
+    checkOpen();
+    if (buffered == bufferCapacity) {
+      try {
+        spill();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    buffer.insert(t);
+    buffered++;
+    size++;
+  }
+
+  // Writes the buffer out best first as a new run. If that fails, the
+  // elements go back into the buffer and the partial file is deleted.
+  private void spill() throws IOException {
+    ArrayList<T> sorted = new ArrayList<>(buffered);
+    buffer.drainTo(sorted, buffered);
+    int id = nextRun++;
+    Path file = dir.resolve("run-" + id);
+    try {
+      try (FileChannel ch = create(file)) {
+        ByteBuffer out = ByteBuffer.allocate(readBufferBytes);
+        for (T t : sorted) {
+          if (out.remaining() < codec.recordSize()) {
+            write(ch, out);
+          }
+          codec.encode(t, out);
+        }
+        write(ch, out);
+      }
+      runs.insert(new Run(file, id, sorted.size(), 0));
+    } catch (IOException | RuntimeException e) {
+      buffer.insertAll(sorted);
+      deleteAfterFailure(file, e);
+      throw e;
+    }
+    buffered = 0;
+    runCount++;
+    if (runCount >= maxRuns) {
+      merge();
+    }
+  }
+
+  // Merges the shorter half of the runs (older first on ties) into one
+  // run. The sources are read through cursors of their own and only
+  // deleted once the merged run is complete, so if the merge fails the
+  // queue is left as it was.
+  private void merge() throws IOException {
+    ArrayList<Run> all = new ArrayList<>(runCount);
+    runs.forEach(all::add);
+    all.sort(Comparator.comparingLong(Run::remaining)
+        .thenComparingInt(r -> r.id));
+    int k = Math.max(2, maxRuns / 2);
+    int id = nextRun++;
+    Path file = dir.resolve("run-" + id);
+    BinaryHeapPriorityQueue<Run> sources = new BinaryHeapPriorityQueue<>();
+    Run merged;
+    try {
+      long count = 0;
+      for (Run run : all.subList(0, k)) {
+        sources.insert(run.reopen());
+        count += run.remaining();
+      }
+      try (FileChannel ch = create(file)) {
+        ByteBuffer out = ByteBuffer.allocate(readBufferBytes);
+        while (!sources.empty()) {
+          Run run = sources.best();
+          sources.remove();
+          if (out.remaining() < codec.recordSize()) {
+            write(ch, out);
+          }
+          codec.encode(run.head, out);
+          if (run.advance()) {
+            sources.insert(run);
+          } else {
+            run.close();
+          }
+        }
+        write(ch, out);
+      }
+      merged = new Run(file, id, count, 0);
+    } catch (IOException | RuntimeException e) {
+      while (!sources.empty()) {
+        try {
+          sources.best().close();
+        } catch (IOException suppressed) {
+          e.addSuppressed(suppressed);
+        }
+        sources.remove();
+      }
+      deleteAfterFailure(file, e);
+      throw e;
+    }
+    runs = new BinaryHeapPriorityQueue<>();
+    runs.insert(merged);
+    runCount -= k - 1;
+    for (int i = 0; i < all.size(); i++) {
+      if (i < k) {
+        all.get(i).delete();
+      } else {
+        runs.insert(all.get(i));
+      }
+    }
+  }
+
+  private static FileChannel create(Path file) throws IOException {
+    return FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  // Best effort cleanup of a half-written run; e is what went wrong.
+  private static void deleteAfterFailure(Path file, Exception e) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException suppressed) {
+      e.addSuppressed(suppressed);
+    }
+  }
+
+  private static void write(FileChannel ch, ByteBuffer out)
+      throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      ch.write(out);
+    }
+    out.clear();
+  }
+
+  // Is the best element the head of a run rather than in the buffer?
+  private boolean bestIsOnDisk() {
+    if (runs.empty()) {
+      return false;
+    }
+    return buffer.empty() || cmp.compare(runs.best().head, buffer.best()) > 0;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    if (bestIsOnDisk()) {
+      Run run = runs.best();
+      runs.remove();
+      try {
+        if (run.advance()) {
+          runs.insert(run); // back in with its new head
+        } else {
+          runCount--;
+          run.delete();
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    } else {
+      buffer.remove();
+      buffered--;
+    }
+    size--;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return bestIsOnDisk() ? runs.best().head : buffer.best();
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Close and delete all run files. Closing twice is fine.
+   *
+   * @throws UncheckedIOException If a run file can't be deleted.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      while (!runs.empty()) {
+        runs.best().delete();
+        runs.remove();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    runCount = 0;
+    size = 0;
+  }
+
+  // A sorted run on disk, read front to back through a buffer. Runs
+  // compare by their heads so the best run ends up on top of the heap.
+  private final class Run implements Comparable<Run> {
+    private final Path file;
+    private final int id; // later runs have higher ids
+    private final long count; // records in the file
+    private final FileChannel ch;
+    private final ByteBuffer in;
+    private long left; // records not yet decoded
+    T head;
+
+    // Opens the run with record first as its head.
+    Run(Path file, int id, long count, long first) throws IOException {
+      this.file = file;
+      this.id = id;
+      this.count = count;
+      ch = FileChannel.open(file, StandardOpenOption.READ);
+      in = ByteBuffer.allocate(readBufferBytes);
+      in.flip(); // start out empty
+      left = count - first;
+      try {
+        ch.position(first * codec.recordSize());
+        advance();
+      } catch (IOException | RuntimeException e) {
+        ch.close();
+        throw e;
+      }
+    }
+
+    // Records from the head on.
+    long remaining() {
+      return left + 1;
+    }
+
+    // A second cursor over the same file, starting at our head.
+    Run reopen() throws IOException {
+      return new Run(file, id, count, count - left - 1);
+    }
+
+    // Moves on to the next record; returns false if there is none.
+    boolean advance() throws IOException {
+      if (left == 0) {
+        return false;
+      }
+      if (in.remaining() < codec.recordSize()) {
+        in.compact();
+        while (in.position() < codec.recordSize() && ch.read(in) >= 0) {
+          // keep reading until a whole record is in
+        }
+        in.flip();
+      }
+      head = codec.decode(in);
+      left--;
+      return true;
+    }
+
+    void close() throws IOException {
+      ch.close();
+    }
+
+    void delete() throws IOException {
+      ch.close();
+      Files.deleteIfExists(file);
+    }
+
+    @Override
+    public int compareTo(Run other) {
+      return cmp.compare(head, other.head);
+    }
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package hw5;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Instantiate the ExternalPriorityQueue to test, with a buffer small
+ * enough that the shared tests spill to disk.
+ */
+public class ExternalPriorityQueueTest extends PriorityQueueTest {
+  private final ArrayList<Path> dirs = new ArrayList<>();
+  private final ArrayList<ExternalPriorityQueue<Integer>> open =
+      new ArrayList<>();
+
+  private ExternalPriorityQueue<Integer> newQueue(Comparator<Integer> comp,
+                                                  int capacity,
+                                                  int readBuffer) {
+    return newQueue(comp, capacity, readBuffer, 16);
+  }
+
+  private ExternalPriorityQueue<Integer> newQueue(Comparator<Integer> comp,
+                                                  int capacity,
+                                                  int readBuffer,
+                                                  int maxRuns) {
+    try {
+      Path dir = Files.createTempDirectory("hw5-external");
+      dirs.add(dir);
+      ExternalPriorityQueue<Integer> pq = new ExternalPriorityQueue<>(dir,
+          new TestSupport.IntCodec(), comp, capacity,
+          readBuffer, maxRuns);
+      open.add(pq);
+      return pq;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return createUnit(Comparator.naturalOrder());
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return newQueue(comp, 3, 8);
+  }
+
+  private static long files(Path dir) throws IOException {
+    try (Stream<Path> s = Files.list(dir)) {
+      return s.count();
+    }
+  }
+
+  @After
+  public void deleteDirs() throws IOException {
+    for (ExternalPriorityQueue<Integer> pq : open) {
+      pq.close();
+    }
+    for (Path dir : dirs) {
+      assertEquals(0, files(dir)); // close() cleans up after itself
+      Files.delete(dir);
+    }
+  }
+
+  @Test
+  public void mergesManyRuns() throws IOException {
+    ExternalPriorityQueue<Integer> pq = newQueue(reverseComp, 100, 64, 4);
+    ArrayList<Integer> ref = new ArrayList<>();
+    Random r = new Random(19);
+    for (int i = 0; i < 5050; i++) {
+      int v = r.nextInt(2000);
+      pq.insert(v);
+      ref.add(v);
+      assertTrue(pq.runs() < 4); // 50 spills, merged as they come
+    }
+    assertEquals(pq.runs(), files(dirs.get(dirs.size() - 1)));
+    assertEquals(5050, pq.size());
+    Collections.sort(ref);
+    for (int v : ref) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+    assertEquals(0, pq.runs());
+    assertEquals(0, files(dirs.get(dirs.size() - 1))); // runs deleted
+  }
+
+  @Test
+  public void interleavedInsertsAndRemoves() {
+    ExternalPriorityQueue<Integer> pq =
+        newQueue(Comparator.naturalOrder(), 16, 32);
+    ArrayList<Integer> ref = new ArrayList<>();
+    Random r = new Random(20);
+    for (int i = 0; i < 3000; i++) {
+      if (ref.isEmpty() || r.nextInt(3) > 0) {
+        int v = r.nextInt();
+        pq.insert(v);
+        ref.add(v);
+      } else {
+        Integer max = Collections.max(ref);
+        assertEquals(max, pq.best());
+        ref.remove(max);
+        pq.remove();
+      }
+    }
+    assertEquals(ref.size(), pq.size());
+  }
+
+  @Test
+  public void failedSpillKeepsElements() throws IOException {
+    ExternalPriorityQueue<Integer> pq =
+        newQueue(Comparator.naturalOrder(), 3, 8);
+    pq.insert(2);
+    pq.insert(7);
+    pq.insert(5);
+    Path dir = dirs.get(dirs.size() - 1);
+    Files.delete(dir); // nowhere to spill to
+    try {
+      pq.insert(4);
+      fail("spilled into a missing directory");
+    } catch (UncheckedIOException e) {
+      // expected
+    }
+    Files.createDirectory(dir);
+    assertEquals(3, pq.size());
+    pq.insert(4);
+    assertEquals(1, pq.runs());
+    for (int v : new int[] {7, 5, 4, 2}) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedQueueRejectsInsert() {
+    ExternalPriorityQueue<Integer> pq =
+        newQueue(Comparator.naturalOrder(), 2, 8);
+    pq.close();
+    pq.insert(1);
+  }
+}
@@ -0,0 +1,122 @@
+package hw5;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Walks a binary heap in priority order without touching it.
+ *
+ * <p>The next element in order is always the root of what is left, so
+ * we keep a small "frontier" heap of slot numbers: start with the root,
+ * and every time a slot is handed out, its two children join the
+ * frontier. Getting k elements costs O(k log k) and an int[] of k + 1
+ * slots, whatever the size of the heap.</p>
+ *
+ * <p>Used by the array heaps with children of slot i at 2i+1 and 2i+2.
+ * Fail-fast: if the heap changes while we walk it, next() throws a
+ * ConcurrentModificationException.</p>
+ *
+ * @param <T> Element type.
+ */
+final class HeapOrderIterator<T> implements Iterator<T> {
+  private final IntFunction<T> at;
+  private final int size;
+  private final Comparator<T> cmp;
+  private final IntSupplier modCount;
+  private final int expected;
+  private final int[] frontier;
+  private int n; // slots in the frontier
+  private int left; // elements still to hand out
+
+  /**
+   * An iterator over the best elements of a heap.
+   *
+   * @param at Element in heap slot i.
+   * @param size Number of elements in the heap.
+   * @param cmp Comparator the heap is ordered by.
+   * @param limit Most elements to hand out.
+   * @param modCount Counter the heap bumps on every change.
+   */
+  HeapOrderIterator(IntFunction<T> at, int size, Comparator<T> cmp,
+                    int limit, IntSupplier modCount) {
+    this.at = at;
+    this.size = size;
+    this.cmp = cmp;
+    this.modCount = modCount;
+    expected = modCount.getAsInt();
+    left = Math.min(limit, size);
+    // each next() takes one slot out and puts at most two in
+    frontier = new int[left + 1];
+    if (left > 0) {
+      frontier[n++] = 0;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return left > 0;
+  }
+
+  @Override
+  public T next() {
+    if (modCount.getAsInt() != expected) {
+      throw new ConcurrentModificationException();
+    }
+    if (left == 0) {
+      throw new NoSuchElementException();
+    }
+    left--;
+    int slot = frontier[0];
+    int last = frontier[--n];
+    if (n > 0) {
+      sink(last);
+    }
+    if (left > 0) {
+      for (int c = 2 * slot + 1; c <= 2 * slot + 2 && c < size; c++) {
+        swim(c);
+      }
+    }
+    return at.apply(slot);
+  }
+
+  // Is the element in heap slot a better than the one in slot b?
+  private boolean better(int a, int b) {
+    return cmp.compare(at.apply(a), at.apply(b)) > 0;
+  }
+
+  // Adds heap slot s to the frontier.
+  private void swim(int s) {
+    int curr = n++;
+    while (curr > 0) {
+      int parent = (curr - 1) / 2;
+      if (!better(s, frontier[parent])) {
+        break;
+      }
+      frontier[curr] = frontier[parent];
+      curr = parent;
+    }
+    frontier[curr] = s;
+  }
+
+  // Puts heap slot s into the hole at the frontier's root.
+  private void sink(int s) {
+    int curr = 0;
+    int half = n / 2;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      if (child + 1 < n && better(frontier[child + 1], frontier[child])) {
+        child++;
+      }
+      if (!better(frontier[child], s)) {
+        break;
+      }
+      frontier[curr] = frontier[child];
+      curr = child;
+    }
+    frontier[curr] = s;
+  }
+}
@@ -0,0 +1,118 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Decorator that records metrics for any PriorityQueue.
+ *
+ * <p>We can't look inside an arbitrary queue, but we can hand it a
+ * comparator that counts its own calls, and we can keep track of the
+ * size: a SizedPriorityQueue is asked, since it may drop values on
+ * insert, anything else is counted. Swaps and sift lengths need help
+ * from the queue itself, see BinaryHeapPriorityQueue.setMetrics().</p>
+ *
+ * @param <T> Element type.
+ */
+public class InstrumentedPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private final PriorityQueue<T> pq;
+  private final PriorityQueueMetrics metrics;
+  private int size;
+
+  /**
+   * An instrumented queue.
+   *
+   * @param factory Makes the underlying queue, given the comparator to use.
+   * @param cmp Comparator to use.
+   * @param metrics Metrics to record into.
+   */
+  public InstrumentedPriorityQueue(
+      Function<Comparator<T>, PriorityQueue<T>> factory, Comparator<T> cmp,
+      PriorityQueueMetrics metrics) {
+    this.metrics = metrics;
+    pq = factory.apply((t1, t2) -> {
+      metrics.compared();
+      return cmp.compare(t1, t2);
+    });
+  }
+
+  /**
+   * The metrics recorded for this queue.
+   *
+   * @return the metrics.
+   */
+  public PriorityQueueMetrics metrics() {
+    return metrics;
+  }
+
+  // Records the size after a change of delta values, or the real size
+  // if the queue can tell us.
+  private void resized(int delta) {
+    if (pq instanceof SizedPriorityQueue) {
+      size = ((SizedPriorityQueue<?>) pq).size();
+    } else {
+      size += delta;
+    }
+    metrics.sized(size);
+  }
+
+  @Override
+  public void insert(T t) {
+    pq.insert(t);
+    resized(1);
+  }
+
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    pq.insertAll(ts);
+    resized(ts.size());
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    pq.remove();
+    resized(-1);
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = pq.drainTo(sink, max);
+    resized(-n);
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = pq.drainTo(sink);
+    resized(-n);
+    return n;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    return pq.best();
+  }
+
+  @Override
+  public T peekOrNull() {
+    return pq.peekOrNull();
+  }
+
+  @Override
+  public T pollOrNull() {
+    T t = pq.pollOrNull();
+    if (t != null) {
+      resized(-1);
+    }
+    return t;
+  }
+
+  @Override
+  public boolean empty() {
+    return pq.empty();
+  }
+}
@@ -0,0 +1,107 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the InstrumentedPriorityQueue to test, and check the
+ * metrics it and BinaryHeapPriorityQueue record.
+ */
+public class InstrumentedPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return createUnit(Comparator.naturalOrder());
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new InstrumentedPriorityQueue<>(BinaryHeapPriorityQueue::new,
+        comp, new PriorityQueueMetrics());
+  }
+
+  @Test
+  public void decoratorCountsComparisonsAndSize() {
+    InstrumentedPriorityQueue<Integer> pq = new InstrumentedPriorityQueue<>(
+        SortedArrayPriorityQueue::new, reverseComp,
+        new PriorityQueueMetrics());
+    pq.insert(3);
+    pq.insert(1);
+    pq.insert(2);
+    assertEquals(3, pq.metrics().getSize());
+    assertTrue(pq.metrics().getComparisons() > 0);
+    pq.drainTo(new ArrayList<>(), 2);
+    assertEquals(1, pq.metrics().getSize());
+    pq.pollOrNull();
+    assertEquals(0, pq.metrics().getSize());
+  }
+
+  @Test
+  public void sizeFollowsQueuesThatDropValues() {
+    Comparator<Integer> natural = Comparator.naturalOrder();
+    InstrumentedPriorityQueue<Integer> pq = new InstrumentedPriorityQueue<>(
+        c -> new BoundedPriorityQueue<>(3, c), natural,
+        new PriorityQueueMetrics());
+    pq.insertAll(Arrays.asList(5, 1, 4, 2, 3));
+    assertEquals(3, pq.metrics().getSize());
+    pq.insert(0); // no better than the worst, dropped
+    assertEquals(3, pq.metrics().getSize());
+    pq.remove();
+    assertEquals(2, pq.metrics().getSize());
+  }
+
+  @Test
+  public void binaryHeapRecordsSifts() {
+    BinaryHeapPriorityQueue<Integer> pq = new BinaryHeapPriorityQueue<>();
+    PriorityQueueMetrics m = new PriorityQueueMetrics();
+    ArrayList<Integer> lengths = new ArrayList<>();
+    m.setListener(new PriorityQueueMetrics.Listener() {
+      @Override
+      public void sifted(int levels) {
+        lengths.add(levels);
+      }
+
+      @Override
+      public void resized(int capacity) {
+      }
+    });
+    pq.setMetrics(m);
+    for (int i = 1; i <= 7; i++) {
+      pq.insert(i); // every value swims all the way up
+    }
+    assertEquals(7, m.getSize());
+    assertEquals(6, m.getSifts()); // the first insert doesn't sift
+    assertEquals(2, m.getMaxSiftLength());
+    assertEquals(10, m.getSwaps()); // 0+1+1+2+2+2+2
+    assertEquals(10, m.getComparisons());
+    assertEquals(6, lengths.size());
+    pq.remove();
+    assertEquals(6, m.getSize());
+    assertEquals(7, m.getSifts());
+    m.reset();
+    assertEquals(0, m.getComparisons());
+    pq.setMetrics(null);
+    pq.remove();
+    assertEquals(0, m.getComparisons());
+  }
+
+  @Test
+  public void metricsShowUpInJmx() throws Exception {
+    PriorityQueueMetrics m = new PriorityQueueMetrics();
+    m.register("test-queue");
+    try {
+      m.compared();
+      Object v = java.lang.management.ManagementFactory
+          .getPlatformMBeanServer().getAttribute(new javax.management
+              .ObjectName("hw5:type=PriorityQueue,name=\"test-queue\""),
+              "Comparisons");
+      assertEquals(1L, v);
+    } finally {
+      m.unregister();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package hw5;
+
+import exceptions.EmptyException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing the IntBinaryHeapPriorityQueue, mirroring PriorityQueueTest.
+ */
+public class IntBinaryHeapPriorityQueueTest {
+  private IntBinaryHeapPriorityQueue unit;
+  private IntBinaryHeapPriorityQueue reverseUnit;
+
+  @Before
+  public void setupTests() {
+    unit = new IntBinaryHeapPriorityQueue();
+    reverseUnit = new IntBinaryHeapPriorityQueue(true);
+  }
+
+  @Test
+  public void newQueueEmpty() {
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForUnit() {
+    unit.bestInt();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.bestInt();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForUnit() {
+    unit.removeInt();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.removeInt();
+  }
+
+  @Test
+  public void queueNotEmptyAfterInsert() {
+    unit.insert(1);
+    assertFalse(unit.empty());
+
+    reverseUnit.insert(1);
+    assertFalse(reverseUnit.empty());
+  }
+
+  @Test
+  public void testInsertUpdatesBest() {
+    unit.insert(2);
+    unit.insert(1);
+    assertEquals(2, unit.bestInt());
+    unit.insert(4);
+    unit.insert(3);
+    assertEquals(4, unit.bestInt());
+
+    reverseUnit.insert(2);
+    reverseUnit.insert(1);
+    assertEquals(1, reverseUnit.bestInt());
+    reverseUnit.insert(3);
+    reverseUnit.insert(4);
+    assertEquals(1, reverseUnit.bestInt());
+  }
+
+  @Test
+  public void testRemoveUpdatesBest() {
+    unit.insert(1);
+    unit.insert(4);
+    unit.insert(0);
+    unit.insert(8);
+    unit.insert(2);
+    assertEquals(8, unit.removeInt());
+    assertEquals(4, unit.removeInt());
+    assertEquals(2, unit.removeInt());
+    assertEquals(1, unit.removeInt());
+    assertEquals(0, unit.bestInt());
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(4);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(2);
+    assertEquals(0, reverseUnit.removeInt());
+    assertEquals(1, reverseUnit.removeInt());
+    assertEquals(2, reverseUnit.removeInt());
+    assertEquals(4, reverseUnit.removeInt());
+    assertEquals(8, reverseUnit.bestInt());
+  }
+
+  @Test
+  public void testWithDuplicateElements() {
+    unit.insert(1);
+    unit.insert(8);
+    unit.insert(0);
+    unit.insert(8);
+    unit.removeInt();
+    assertEquals(8, unit.bestInt());
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(0);
+    reverseUnit.removeInt();
+    assertEquals(0, reverseUnit.bestInt());
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (int i = 0; i < 100; i++) {
+      unit.insert((i * 37) % 100);
+    }
+    assertEquals(100, unit.size());
+    for (int i = 99; i >= 0; i--) {
+      assertEquals(i, unit.removeInt());
+    }
+    assertTrue(unit.empty());
+  }
+}
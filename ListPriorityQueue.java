@@ -1,7 +1,10 @@
 package hw5;
 
 import exceptions.EmptyException;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Priority queue implemented using our (unordered) abstract List,
@@ -42,23 +45,52 @@ public class ListPriorityQueue<T extends Comparable<T>>
   @Override
   public void remove() throws EmptyException {
     if (list.empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
+    list.remove(bestPosition());
+  }
+
+  // Position holding the best value of a non-empty list, found in a
+  // single pass (rather than calling best() again for every position).
+  private Position<T> bestPosition() {
     Position<T> p = list.front();
-    int i = 0;
-    while (i < list.length()) {
-      if (p.get() == best()) {
-        list.remove(p);
-        return;
-      }
+    Position<T> best = p;
+    while (!list.last(p)) {
       p = list.next(p);
+      if (cmp.compare(best.get(), p.get()) < 0) {
+        best = p;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = 0;
+    while (n < max && !list.empty()) {
+      Position<T> p = bestPosition();
+      sink.add(p.get());
+      list.remove(p);
+      n++;
+    }
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = 0;
+    while (n < sink.length && !list.empty()) {
+      Position<T> p = bestPosition();
+      sink[n++] = p.get();
+      list.remove(p);
     }
+    return n;
   }
 
   @Override
   public T best() throws EmptyException {
     if (list.empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     Position<T> p = list.front();
     T best = p.get();
@@ -70,11 +102,48 @@ public class ListPriorityQueue<T extends Comparable<T>>
     return best;
   }
 
+  @Override
+  public T peekOrNull() {
+    return list.empty() ? null : bestPosition().get();
+  }
+
+  @Override
+  public T pollOrNull() {
+    if (list.empty()) {
+      return null;
+    }
+    Position<T> p = bestPosition();
+    T t = p.get();
+    list.remove(p);
+    return t;
+  }
+
   @Override
   public boolean empty() {
     return list.empty();
   }
 
+  /**
+   * A sequential stream of the values, in no particular order.
+   *
+   * @return a stream over the queue.
+   */
+  public Stream<T> stream() {
+    return StreamSupport.stream(list.spliterator(), false);
+  }
+
+  /**
+   * A parallel stream of the values, in no particular order.
+   *
+   * <p>The list is split by walking it and copying off batches of
+   * growing size, like java.util.LinkedList does.</p>
+   *
+   * @return a possibly parallel stream over the queue.
+   */
+  public Stream<T> parallelStream() {
+    return StreamSupport.stream(list.spliterator(), true);
+  }
+
   // The default comparator uses the "natural" ordering.
   private static class DefaultComparator<T extends Comparable<T>>
       implements Comparator<T> {
@@ -1,6 +1,12 @@
 package hw5;
 
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Spliterator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
 
 /**
  * Instantiate the ListPriorityQueue to test.
@@ -15,4 +21,59 @@ public class ListPriorityQueueTest extends PriorityQueueTest {
   protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
     return new ListPriorityQueue<>(comp);
   }
+
+  @Test
+  public void testStreams() {
+    ListPriorityQueue<Integer> pq = new ListPriorityQueue<>();
+    long sum = 0;
+    for (int i = 0; i < 10000; i++) {
+      pq.insert(i);
+      sum += i;
+    }
+    assertEquals(sum, pq.stream().mapToLong(v -> v).sum());
+    assertEquals(sum, pq.parallelStream().mapToLong(v -> v).sum());
+    assertEquals(10000, pq.parallelStream().distinct().count());
+  }
+
+  @Test
+  public void testSpliteratorSplitsInGrowingBatches() {
+    SentinelList<Integer> list = new SentinelList<>();
+    for (int i = 0; i < 5000; i++) {
+      list.insertBack(i);
+    }
+    Spliterator<Integer> rest = list.spliterator();
+    assertEquals(5000, rest.getExactSizeIfKnown());
+    Spliterator<Integer> first = rest.trySplit();
+    Spliterator<Integer> second = rest.trySplit();
+    assertEquals(1024, first.getExactSizeIfKnown());
+    assertEquals(2048, second.getExactSizeIfKnown());
+    assertEquals(5000 - 1024 - 2048, rest.getExactSizeIfKnown());
+    // the pieces keep the list's order
+    int[] next = new int[1];
+    for (Spliterator<Integer> s : Arrays.asList(first, second, rest)) {
+      s.forEachRemaining(v -> assertEquals(next[0]++, v.intValue()));
+    }
+    assertEquals(5000, next[0]);
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void testSpliteratorFailsFast() {
+    SentinelList<Integer> list = new SentinelList<>();
+    for (int i = 0; i < 10; i++) {
+      list.insertBack(i);
+    }
+    Spliterator<Integer> s = list.spliterator();
+    s.tryAdvance(v -> { });
+    list.removeFront();
+    s.tryAdvance(v -> { });
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void testStreamFailsFast() {
+    ListPriorityQueue<Integer> pq = new ListPriorityQueue<>();
+    for (int i = 0; i < 10; i++) {
+      pq.insert(i);
+    }
+    pq.stream().forEach(v -> pq.insert(v));
+  }
 }
@@ -0,0 +1,128 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+
+/**
+ * Priority queue of primitive longs implemented as a binary heap.
+ *
+ * <p>Same ranked array representation as BinaryHeapPriorityQueue, but
+ * the keys live in a raw long[] so nothing gets boxed and no Comparator
+ * is called on the hot path. The only allocation is growing the array
+ * when it fills up.</p>
+ *
+ * <p>By default best == max; pass true to the constructor to get a
+ * queue where best == min instead.</p>
+ */
+public class LongBinaryHeapPriorityQueue {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] heap;
+  private int size;
+  private final boolean min;
+
+  /**
+   * A long heap where best is the largest value.
+   */
+  public LongBinaryHeapPriorityQueue() {
+    this(false);
+  }
+
+  /**
+   * A long heap with the given ordering.
+   *
+   * @param min True if best should be the smallest value,
+   *            false if it should be the largest.
+   */
+  public LongBinaryHeapPriorityQueue(boolean min) {
+    heap = new long[INITIAL_CAPACITY];
+    this.min = min;
+  }
+
+  // Should a be closer to the root than b?
+  private boolean better(long a, long b) {
+    return min ? a < b : a > b;
+  }
+
+  /**
+   * Insert a value.
+   *
+   * @param t Value to insert.
+   */
+  public void insert(long t) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    // move the "hole" up instead of swapping at every level
+    int curr = size++;
+    while (curr > 0) {
+      int parent = (curr - 1) / 2;
+      if (!better(t, heap[parent])) {
+        break;
+      }
+      heap[curr] = heap[parent];
+      curr = parent;
+    }
+    heap[curr] = t;
+  }
+
+  /**
+   * Remove best value.
+   *
+   * @return the value that was removed.
+   * @throws EmptyException If queue is empty.
+   */
+  public long removeLong() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    long best = heap[0];
+    long last = heap[--size];
+    int curr = 0;
+    int half = size / 2;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      if (child + 1 < size && better(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!better(heap[child], last)) {
+        break;
+      }
+      heap[curr] = heap[child];
+      curr = child;
+    }
+    heap[curr] = last;
+    return best;
+  }
+
+  /**
+   * Return best value.
+   *
+   * @return best value in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  public long bestLong() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return heap[0];
+  }
+
+  /**
+   * Check if no elements present.
+   *
+   * @return True if queue is empty, false otherwise.
+   */
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Number of elements in the queue.
+   *
+   * @return Number of elements.
+   */
+  public int size() {
+    return size;
+  }
+}
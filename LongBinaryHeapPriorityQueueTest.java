@@ -0,0 +1,129 @@
+package hw5;
+
+import exceptions.EmptyException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing the LongBinaryHeapPriorityQueue, mirroring PriorityQueueTest.
+ */
+public class LongBinaryHeapPriorityQueueTest {
+  private LongBinaryHeapPriorityQueue unit;
+  private LongBinaryHeapPriorityQueue reverseUnit;
+
+  @Before
+  public void setupTests() {
+    unit = new LongBinaryHeapPriorityQueue();
+    reverseUnit = new LongBinaryHeapPriorityQueue(true);
+  }
+
+  @Test
+  public void newQueueEmpty() {
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForUnit() {
+    unit.bestLong();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.bestLong();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForUnit() {
+    unit.removeLong();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.removeLong();
+  }
+
+  @Test
+  public void queueNotEmptyAfterInsert() {
+    unit.insert(1);
+    assertFalse(unit.empty());
+
+    reverseUnit.insert(1);
+    assertFalse(reverseUnit.empty());
+  }
+
+  @Test
+  public void testInsertUpdatesBest() {
+    unit.insert(2);
+    unit.insert(1);
+    assertEquals(2, unit.bestLong());
+    unit.insert(4);
+    unit.insert(3);
+    assertEquals(4, unit.bestLong());
+
+    reverseUnit.insert(2);
+    reverseUnit.insert(1);
+    assertEquals(1, reverseUnit.bestLong());
+    reverseUnit.insert(3);
+    reverseUnit.insert(4);
+    assertEquals(1, reverseUnit.bestLong());
+  }
+
+  @Test
+  public void testRemoveUpdatesBest() {
+    unit.insert(1);
+    unit.insert(4);
+    unit.insert(0);
+    unit.insert(8);
+    unit.insert(2);
+    assertEquals(8, unit.removeLong());
+    assertEquals(4, unit.removeLong());
+    assertEquals(2, unit.removeLong());
+    assertEquals(1, unit.removeLong());
+    assertEquals(0, unit.bestLong());
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(4);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(2);
+    assertEquals(0, reverseUnit.removeLong());
+    assertEquals(1, reverseUnit.removeLong());
+    assertEquals(2, reverseUnit.removeLong());
+    assertEquals(4, reverseUnit.removeLong());
+    assertEquals(8, reverseUnit.bestLong());
+  }
+
+  @Test
+  public void testWithDuplicateElements() {
+    unit.insert(1);
+    unit.insert(8);
+    unit.insert(0);
+    unit.insert(8);
+    unit.removeLong();
+    assertEquals(8, unit.bestLong());
+
+    reverseUnit.insert(1);
+    reverseUnit.insert(0);
+    reverseUnit.insert(8);
+    reverseUnit.insert(0);
+    reverseUnit.removeLong();
+    assertEquals(0, reverseUnit.bestLong());
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (int i = 0; i < 100; i++) {
+      unit.insert((i * 37) % 100);
+    }
+    assertEquals(100, unit.size());
+    for (int i = 99; i >= 0; i--) {
+      assertEquals(i, unit.removeLong());
+    }
+    assertTrue(unit.empty());
+  }
+}
@@ -0,0 +1,157 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+
+/**
+ * Priority queue of (long key, value) pairs implemented as a binary heap.
+ *
+ * <p>Same ranked array layout as BinaryHeapPriorityQueue, but kept in two
+ * parallel arrays: the keys in a long[] and the values in an Object[].
+ * Sifting compares only the contiguous keys and moves the value
+ * references along in lockstep, so no wrapper object is needed per
+ * entry.</p>
+ *
+ * <p>By default best == max key; pass true to the constructor to get a
+ * queue where best == min key instead (handy for timestamps).</p>
+ *
+ * @param <V> Value type.
+ */
+public class LongKeyedPriorityQueue<V> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] keys;
+  private Object[] values;
+  private int size;
+  private final boolean min;
+
+  /**
+   * A keyed heap where best is the largest key.
+   */
+  public LongKeyedPriorityQueue() {
+    this(false);
+  }
+
+  /**
+   * A keyed heap with the given ordering.
+   *
+   * @param min True if best should be the smallest key,
+   *            false if it should be the largest.
+   */
+  public LongKeyedPriorityQueue(boolean min) {
+    keys = new long[INITIAL_CAPACITY];
+    values = new Object[INITIAL_CAPACITY];
+    this.min = min;
+  }
+
+  // Should key a be closer to the root than key b?
+  private boolean better(long a, long b) {
+    return min ? a < b : a > b;
+  }
+
+  /**
+   * Insert a value with the given key.
+   *
+   * <p>Duplicate keys are allowed; entries with equal keys come out
+   * in no particular order.</p>
+   *
+   * @param key Priority of the value.
+   * @param value Value to insert.
+   */
+  public void insert(long key, V value) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      values = Arrays.copyOf(values, size * 2);
+    }
+    int curr = size++;
+    while (curr > 0) {
+      int parent = (curr - 1) / 2;
+      if (!better(key, keys[parent])) {
+        break;
+      }
+      keys[curr] = keys[parent];
+      values[curr] = values[parent];
+      curr = parent;
+    }
+    keys[curr] = key;
+    values[curr] = value;
+  }
+
+  /**
+   * Remove the entry with the best key.
+   *
+   * @throws EmptyException If queue is empty.
+   */
+  public void removeBest() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    size--;
+    long lastKey = keys[size];
+    Object lastValue = values[size];
+    values[size] = null; // don't hang on to removed values
+    int curr = 0;
+    int half = size / 2;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      if (child + 1 < size && better(keys[child + 1], keys[child])) {
+        child++;
+      }
+      if (!better(keys[child], lastKey)) {
+        break;
+      }
+      keys[curr] = keys[child];
+      values[curr] = values[child];
+      curr = child;
+    }
+    if (size > 0) {
+      keys[curr] = lastKey;
+      values[curr] = lastValue;
+    }
+  }
+
+  /**
+   * Return the best key.
+   *
+   * @return best key in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  public long bestKey() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return keys[0];
+  }
+
+  /**
+   * Return the value stored with the best key.
+   *
+   * @return value of the best entry in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  @SuppressWarnings("unchecked")
+  public V bestValue() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return (V) values[0];
+  }
+
+  /**
+   * Check if no elements present.
+   *
+   * @return True if queue is empty, false otherwise.
+   */
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Number of entries in the queue.
+   *
+   * @return Number of entries.
+   */
+  public int size() {
+    return size;
+  }
+}
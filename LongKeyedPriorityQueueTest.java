@@ -0,0 +1,109 @@
+package hw5;
+
+import exceptions.EmptyException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing the LongKeyedPriorityQueue.
+ */
+public class LongKeyedPriorityQueueTest {
+  private LongKeyedPriorityQueue<String> unit;
+  private LongKeyedPriorityQueue<String> reverseUnit;
+
+  @Before
+  public void setupTests() {
+    unit = new LongKeyedPriorityQueue<>();
+    reverseUnit = new LongKeyedPriorityQueue<>(true);
+  }
+
+  @Test
+  public void newQueueEmpty() {
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestKeyThrowsEmptyException() {
+    unit.bestKey();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestValueThrowsEmptyException() {
+    unit.bestValue();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeBestThrowsEmptyException() {
+    reverseUnit.removeBest();
+  }
+
+  @Test
+  public void queueNotEmptyAfterInsert() {
+    unit.insert(1, "one");
+    assertFalse(unit.empty());
+    unit.removeBest();
+    assertTrue(unit.empty());
+  }
+
+  @Test
+  public void valuesFollowTheirKeys() {
+    unit.insert(1, "one");
+    unit.insert(4, "four");
+    unit.insert(0, "zero");
+    unit.insert(8, "eight");
+    unit.insert(2, "two");
+    assertEquals(8, unit.bestKey());
+    assertEquals("eight", unit.bestValue());
+    unit.removeBest();
+    assertEquals("four", unit.bestValue());
+    unit.removeBest();
+    assertEquals("two", unit.bestValue());
+    unit.removeBest();
+    assertEquals("one", unit.bestValue());
+    unit.removeBest();
+    assertEquals(0, unit.bestKey());
+    assertEquals("zero", unit.bestValue());
+
+    reverseUnit.insert(1, "one");
+    reverseUnit.insert(4, "four");
+    reverseUnit.insert(0, "zero");
+    reverseUnit.insert(8, "eight");
+    reverseUnit.insert(2, "two");
+    assertEquals("zero", reverseUnit.bestValue());
+    reverseUnit.removeBest();
+    assertEquals("one", reverseUnit.bestValue());
+    reverseUnit.removeBest();
+    assertEquals(2, reverseUnit.bestKey());
+  }
+
+  @Test
+  public void testWithDuplicateKeys() {
+    reverseUnit.insert(5, "a");
+    reverseUnit.insert(5, "b");
+    reverseUnit.insert(7, "c");
+    reverseUnit.removeBest();
+    assertEquals(5, reverseUnit.bestKey());
+    reverseUnit.removeBest();
+    assertEquals(7, reverseUnit.bestKey());
+    assertEquals("c", reverseUnit.bestValue());
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (long i = 0; i < 100; i++) {
+      reverseUnit.insert((i * 37) % 100, "v" + ((i * 37) % 100));
+    }
+    assertEquals(100, reverseUnit.size());
+    for (long i = 0; i < 100; i++) {
+      assertEquals(i, reverseUnit.bestKey());
+      assertEquals("v" + i, reverseUnit.bestValue());
+      reverseUnit.removeBest();
+    }
+    assertTrue(reverseUnit.empty());
+  }
+}
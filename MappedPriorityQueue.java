@@ -0,0 +1,446 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * Priority queue that survives restarts, kept in memory-mapped files.
+ *
+ * <p>The heap itself is the same ranked array as ArrayHeapPriorityQueue,
+ * but its slots are fixed-size records (see RecordCodec) in a file
+ * mapped with FileChannel.map, so the elements live in the page cache
+ * rather than on the Java heap. Three files in the queue's directory
+ * make it recoverable:</p>
+ * <ul>
+ *   <li>heap: the mapped working copy. It is updated in place, so after
+ *       a crash it can be half old and half new; it is never trusted on
+ *       its own.</li>
+ *   <li>checkpoint: a consistent copy of the heap, tagged with a
+ *       generation number and a CRC. It is written to a temporary file
+ *       and renamed into place, so it is always either the old or the
+ *       new checkpoint.</li>
+ *   <li>journal: every insert and remove since the checkpoint, each with
+ *       its own CRC, under a header carrying the checkpoint's
+ *       generation.</li>
+ * </ul>
+ *
+ * <p>Opening a queue loads the checkpoint and replays the journal, which
+ * only holds the operations since then; a torn entry at the end of the
+ * journal (the process died mid-write) is cut off. A journal from an
+ * older generation means we died right after a checkpoint, so it is
+ * ignored. Heap operations are deterministic, so the replay rebuilds
+ * exactly the heap we had.</p>
+ *
+ * <p>A checkpoint is taken every checkpointEvery operations and on
+ * close(). Journal entries are handed to the OS as they happen, so a
+ * killed process loses nothing; call sync() to also survive losing the
+ * machine.</p>
+ *
+ * <p>A single mapping is limited to 2GB, which caps the heap at that many
+ * bytes of records.</p>
+ *
+ * @param <T> Element type.
+ */
+public class MappedPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T>, AutoCloseable {
+
+  private static final int CHECKPOINT_MAGIC = 0x68773563; // "hw5c"
+  private static final int JOURNAL_MAGIC = 0x6877356a; // "hw5j"
+  private static final int CHECKPOINT_HEADER = 20; // magic, gen, rec, size
+  private static final int JOURNAL_HEADER = 12; // magic, generation
+  private static final byte INSERT = 1;
+  private static final byte REMOVE = 2;
+  private static final int DEFAULT_CHECKPOINT_EVERY = 10000;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Path dir;
+  private final RecordCodec<T> codec;
+  private final Comparator<T> cmp;
+  private final int recordSize;
+  private final int checkpointEvery;
+
+  private FileChannel heapChannel;
+  private MappedByteBuffer heap;
+  private int capacity;
+  private int size;
+
+  private FileChannel journal;
+  private final ByteBuffer entry;
+  private final CRC32 crc = new CRC32();
+  private long generation;
+  private int pending; // operations since the last checkpoint
+
+  /**
+   * A persistent queue using the "natural" ordering of T.
+   *
+   * @param dir Directory holding the queue's files, created if needed.
+   * @param codec Codec for the elements.
+   * @throws IOException If the files can't be read or written.
+   */
+  public MappedPriorityQueue(Path dir, RecordCodec<T> codec)
+      throws IOException {
+    this(dir, codec, new DefaultComparator<>());
+  }
+
+  /**
+   * A persistent queue using the given comparator for T.
+   *
+   * @param dir Directory holding the queue's files, created if needed.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use.
+   * @throws IOException If the files can't be read or written.
+   */
+  public MappedPriorityQueue(Path dir, RecordCodec<T> codec,
+                             Comparator<T> cmp) throws IOException {
+    this(dir, codec, cmp, DEFAULT_CHECKPOINT_EVERY);
+  }
+
+  /**
+   * A persistent queue using the given comparator for T and checkpoint
+   * interval. If the directory already holds a queue, it is recovered.
+   *
+   * @param dir Directory holding the queue's files, created if needed.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must order the same way every time
+   *            the queue is opened.
+   * @param checkpointEvery Operations between checkpoints, at least 1.
+   * @throws IOException If the files can't be read or written, or the
+   *                     checkpoint is corrupt.
+   * @throws IllegalArgumentException If checkpointEvery is less than 1.
+   */
+  public MappedPriorityQueue(Path dir, RecordCodec<T> codec,
+                             Comparator<T> cmp, int checkpointEvery)
+      throws IOException {
+    if (checkpointEvery < 1) {
+      throw new IllegalArgumentException(
+          "checkpoint interval must be at least 1");
+    }
+    this.dir = dir;
+    this.codec = codec;
+    this.cmp = cmp;
+    this.recordSize = codec.recordSize();
+    this.checkpointEvery = checkpointEvery;
+    entry = ByteBuffer.allocate(1 + recordSize + 4);
+    Files.createDirectories(dir);
+    heapChannel = FileChannel.open(dir.resolve("heap"),
+        StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    recover();
+  }
+
+  /**
+   * Number of elements in the queue.
+   *
+   * @return Number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  // Loads the checkpoint into the working heap and replays the journal.
+  private void recover() throws IOException {
+    Path checkpoint = dir.resolve("checkpoint");
+    int n = 0;
+    if (Files.exists(checkpoint)) {
+      ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+      if (buf.remaining() < CHECKPOINT_HEADER + 8
+          || buf.getInt(0) != CHECKPOINT_MAGIC
+          || buf.getInt(12) != recordSize) {
+        throw new IOException("not a checkpoint for this queue: "
+            + checkpoint);
+      }
+      n = buf.getInt(16);
+      long end = CHECKPOINT_HEADER + (long) n * recordSize;
+      if (n < 0 || buf.remaining() != end + 8) {
+        throw new IOException("corrupt checkpoint: " + checkpoint);
+      }
+      crc.reset();
+      crc.update(buf.array(), 0, (int) end);
+      if (buf.getLong((int) end) != crc.getValue()) {
+        throw new IOException("corrupt checkpoint: " + checkpoint);
+      }
+      generation = buf.getLong(4);
+      map(Math.max(INITIAL_CAPACITY, n));
+      heap.position(0);
+      heap.put(buf.array(), CHECKPOINT_HEADER, n * recordSize);
+    } else {
+      map(INITIAL_CAPACITY);
+    }
+    size = n;
+
+    journal = FileChannel.open(dir.resolve("journal"),
+        StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER);
+    journal.read(header, 0);
+    if (header.position() == JOURNAL_HEADER
+        && header.getInt(0) == JOURNAL_MAGIC
+        && header.getLong(4) == generation) {
+      replay();
+    } else {
+      // missing, or from before the checkpoint we just loaded
+      resetJournal();
+    }
+  }
+
+  // Applies the journal entries after the header, stopping at the first
+  // one that is cut short or fails its CRC, and drops everything after.
+  private void replay() throws IOException {
+    long pos = JOURNAL_HEADER;
+    long length = journal.size();
+    ByteBuffer buf = ByteBuffer.allocate(entry.capacity());
+    while (pos < length) {
+      buf.clear().limit(1);
+      journal.read(buf, pos);
+      byte op = buf.get(0);
+      int len = op == INSERT ? 1 + recordSize : 1;
+      if (op != INSERT && op != REMOVE || pos + len + 4 > length) {
+        break;
+      }
+      buf.clear().limit(len + 4);
+      journal.read(buf, pos);
+      crc.reset();
+      crc.update(buf.array(), 0, len);
+      if ((int) crc.getValue() != buf.getInt(len)) {
+        break;
+      }
+      if (op == INSERT) {
+        buf.position(1);
+        apply(codec.decode(buf));
+      } else if (size > 0) {
+        removeRoot();
+      }
+      pos += len + 4;
+      pending++;
+    }
+    journal.truncate(pos);
+    journal.position(pos);
+  }
+
+  // Starts an empty journal for the current generation.
+  private void resetJournal() throws IOException {
+    journal.truncate(0);
+    ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER);
+    header.putInt(JOURNAL_MAGIC).putLong(generation).flip();
+    journal.write(header, 0);
+    journal.force(false);
+    journal.position(JOURNAL_HEADER);
+    pending = 0;
+  }
+
+  // Maps the working heap file with room for the given number of
+  // records; the file grows to match.
+  private void map(int records) throws IOException {
+    heap = heapChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+        (long) records * recordSize);
+    capacity = records;
+  }
+
+  private T at(int i) {
+    heap.position(i * recordSize);
+    return codec.decode(heap);
+  }
+
+  private void put(int i, T t) {
+    heap.position(i * recordSize);
+    codec.encode(t, heap);
+  }
+
+  private void log(byte op, T t) {
+    entry.clear();
+    entry.put(op);
+    if (t != null) {
+      codec.encode(t, entry);
+    }
+    int len = entry.position();
+    crc.reset();
+    crc.update(entry.array(), 0, len);
+    entry.putInt((int) crc.getValue());
+    entry.flip();
+    try {
+      while (entry.hasRemaining()) {
+        journal.write(entry);
+      }
+      if (++pending >= checkpointEvery) {
+        checkpoint();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Inserts into the working heap without logging.
+  private void apply(T t) throws IOException {
+    if (size == capacity) {
+      map(capacity * 2);
+    }
+    int curr = size++;
+    while (curr > 0) {
+      int parent = (curr - 1) >>> 1;
+      T p = at(parent);
+      if (cmp.compare(p, t) >= 0) {
+        break;
+      }
+      put(curr, p);
+      curr = parent;
+    }
+    put(curr, t);
+  }
+
+  // Removes the root of a non-empty working heap without logging.
+  private void removeRoot() {
+    T last = at(--size);
+    int curr = 0;
+    int half = size >>> 1;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      T c = at(child);
+      if (child + 1 < size) {
+        T r = at(child + 1);
+        if (cmp.compare(c, r) < 0) {
+          child++;
+          c = r;
+        }
+      }
+      if (cmp.compare(last, c) >= 0) {
+        break;
+      }
+      put(curr, c);
+      curr = child;
+    }
+    if (size > 0) {
+      put(curr, last);
+    }
+  }
+
+  private void checkOpen() {
+    if (journal == null) {
+      throw new IllegalStateException("queue is closed");
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException If the journal can't be written.
+   */
+  @Override
+  public void insert(T t) {
+    checkOpen();
+    try {
+      apply(t);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    log(INSERT, t);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws UncheckedIOException If the journal can't be written.
+   */
+  @Override
+  public void remove() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    removeRoot();
+    log(REMOVE, null);
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return at(0);
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Write a checkpoint and start a new journal.
+   *
+   * @throws IOException If the files can't be written.
+   */
+  public void checkpoint() throws IOException {
+    checkOpen();
+    int bytes = size * recordSize;
+    ByteBuffer buf = ByteBuffer.allocate(CHECKPOINT_HEADER + bytes + 8);
+    buf.putInt(CHECKPOINT_MAGIC).putLong(generation + 1)
+        .putInt(recordSize).putInt(size);
+    ByteBuffer records = heap.duplicate();
+    records.position(0).limit(bytes);
+    buf.put(records);
+    crc.reset();
+    crc.update(buf.array(), 0, buf.position());
+    buf.putLong(crc.getValue());
+    buf.flip();
+
+    Path tmp = dir.resolve("checkpoint.tmp");
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buf.hasRemaining()) {
+        out.write(buf);
+      }
+      out.force(true);
+    }
+    Files.move(tmp, dir.resolve("checkpoint"),
+        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    // from here on the old journal is stale, even if we die right now
+    generation++;
+    resetJournal();
+  }
+
+  /**
+   * Force the journal to disk, so everything done so far survives a
+   * power failure and not just a crash of the process.
+   *
+   * @throws IOException If the journal can't be written.
+   */
+  public void sync() throws IOException {
+    checkOpen();
+    journal.force(false);
+  }
+
+  /**
+   * Write a final checkpoint and close the files. Closing twice is fine.
+   *
+   * @throws IOException If the files can't be written.
+   */
+  @Override
+  public void close() throws IOException {
+    if (journal == null) {
+      return;
+    }
+    checkpoint();
+    journal.close();
+    heapChannel.close();
+    journal = null;
+    heap = null;
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package hw5;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the MappedPriorityQueue to test, and check that it
+ * recovers after being killed.
+ */
+public class MappedPriorityQueueTest extends PriorityQueueTest {
+  private final ArrayList<Path> dirs = new ArrayList<>();
+  private final ArrayList<MappedPriorityQueue<Integer>> open =
+      new ArrayList<>();
+
+  private Path newDir() {
+    try {
+      Path dir = Files.createTempDirectory("hw5-mapped");
+      dirs.add(dir);
+      return dir;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private MappedPriorityQueue<Integer> open(Path dir, int checkpointEvery)
+      throws IOException {
+    MappedPriorityQueue<Integer> pq = new MappedPriorityQueue<>(dir,
+        new TestSupport.IntCodec(), Comparator.naturalOrder(), checkpointEvery);
+    open.add(pq);
+    return pq;
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return createUnit(Comparator.naturalOrder());
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    try {
+      MappedPriorityQueue<Integer> pq = new MappedPriorityQueue<>(newDir(),
+          new TestSupport.IntCodec(), comp, 64);
+      open.add(pq);
+      return pq;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @After
+  public void deleteDirs() throws IOException {
+    for (MappedPriorityQueue<Integer> pq : open) {
+      pq.close();
+    }
+    for (Path dir : dirs) {
+      try (Stream<Path> files = Files.list(dir)) {
+        for (Path f : (Iterable<Path>) files::iterator) {
+          Files.delete(f);
+        }
+      }
+      Files.delete(dir);
+    }
+  }
+
+  private static void assertDrains(PriorityQueue<Integer> pq,
+                                   ArrayList<Integer> expected) {
+    expected.sort(Comparator.reverseOrder());
+    for (int v : expected) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  // Runs a random mix of operations on pq and a reference list.
+  private static void churn(MappedPriorityQueue<Integer> pq,
+                            ArrayList<Integer> ref, int ops, long seed) {
+    Random r = new Random(seed);
+    for (int i = 0; i < ops; i++) {
+      if (ref.isEmpty() || r.nextInt(3) > 0) {
+        int v = r.nextInt(1000);
+        pq.insert(v);
+        ref.add(v);
+      } else {
+        ref.remove(pq.best());
+        pq.remove();
+      }
+    }
+  }
+
+  @Test
+  public void survivesCleanRestart() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 50);
+    ArrayList<Integer> ref = new ArrayList<>();
+    churn(pq, ref, 500, 1);
+    pq.close();
+    MappedPriorityQueue<Integer> again = open(dir, 50);
+    assertEquals(ref.size(), again.size());
+    assertDrains(again, ref);
+  }
+
+  @Test
+  public void recoversAfterKill() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 37);
+    ArrayList<Integer> ref = new ArrayList<>();
+    churn(pq, ref, 1000, 2); // ends mid-interval, no close()
+    // scribble over the working heap; recovery must not need it
+    Files.write(dir.resolve("heap"), new byte[4096]);
+    MappedPriorityQueue<Integer> again = open(dir, 37);
+    assertEquals(ref.size(), again.size());
+    assertDrains(again, ref);
+  }
+
+  @Test
+  public void tornJournalTailIsDropped() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 1000);
+    ArrayList<Integer> ref = new ArrayList<>();
+    churn(pq, ref, 100, 3);
+    pq.insert(5000); // this one gets torn
+    Path journal = dir.resolve("journal");
+    try (FileChannel ch = FileChannel.open(journal,
+        StandardOpenOption.WRITE)) {
+      ch.truncate(ch.size() - 2);
+    }
+    MappedPriorityQueue<Integer> again = open(dir, 1000);
+    assertEquals(ref.size(), again.size());
+    again.insert(7); // the journal was cut cleanly and takes more
+    ref.add(7);
+    MappedPriorityQueue<Integer> third = open(dir, 1000);
+    assertDrains(third, ref);
+  }
+
+  @Test
+  public void corruptJournalEntryStopsReplay() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 1000);
+    ArrayList<Integer> ref = new ArrayList<>();
+    churn(pq, ref, 100, 4);
+    long good = Files.size(dir.resolve("journal"));
+    pq.insert(6000);
+    pq.insert(6001);
+    try (FileChannel ch = FileChannel.open(dir.resolve("journal"),
+        StandardOpenOption.WRITE)) {
+      ch.write(ByteBuffer.wrap(new byte[] {(byte) 0xff}), good + 2);
+    }
+    MappedPriorityQueue<Integer> again = open(dir, 1000);
+    assertDrains(again, ref);
+  }
+
+  @Test
+  public void staleJournalIsNotReplayedTwice() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 1000);
+    ArrayList<Integer> ref = new ArrayList<>();
+    churn(pq, ref, 100, 5);
+    byte[] before = Files.readAllBytes(dir.resolve("journal"));
+    pq.checkpoint();
+    // as if we died between renaming the checkpoint and the new journal
+    Files.write(dir.resolve("journal"), before);
+    MappedPriorityQueue<Integer> again = open(dir, 1000);
+    assertEquals(ref.size(), again.size());
+    assertDrains(again, ref);
+  }
+
+  @Test(expected = IOException.class)
+  public void corruptCheckpointIsReported() throws IOException {
+    Path dir = newDir();
+    MappedPriorityQueue<Integer> pq = open(dir, 1000);
+    pq.insert(1);
+    pq.insert(2);
+    pq.close();
+    byte[] bytes = Files.readAllBytes(dir.resolve("checkpoint"));
+    bytes[21] ^= 1;
+    Files.write(dir.resolve("checkpoint"), bytes);
+    open(dir, 1000);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedQueueRejectsInsert() throws IOException {
+    MappedPriorityQueue<Integer> pq = open(newDir(), 10);
+    pq.close();
+    pq.insert(1);
+  }
+}
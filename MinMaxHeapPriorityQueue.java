@@ -0,0 +1,253 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Double-ended priority queue implemented as a min-max heap.
+ *
+ * <p>The usual ranked array, but the levels take turns. Elements on even
+ * levels (the root's) are better than everything below them and
+ * elements on odd levels are worse than everything below them, so the
+ * best element is the root and the worst is one of its two children.
+ * Both ends can be looked at in O(1) and removed in O(log n), from a
+ * single array: no need for a second heap with a reversed comparator
+ * to get at the worst end.</p>
+ *
+ * <p>On the way down a sift compares against children and grandchildren
+ * both, since the element has to end up on the right kind of level.</p>
+ *
+ * @param <T> Element type.
+ */
+public class MinMaxHeapPriorityQueue<T extends Comparable<T>>
+    implements SizedPriorityQueue<T> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Object[] heap;
+  private int size;
+  private Comparator<T> cmp;
+
+  /**
+   * A min-max heap using the "natural" ordering of T.
+   */
+  public MinMaxHeapPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * A min-max heap using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public MinMaxHeapPriorityQueue(Comparator<T> cmp) {
+    this(INITIAL_CAPACITY, cmp);
+  }
+
+  /**
+   * A min-max heap with room for the given number of elements before it
+   * has to grow.
+   *
+   * @param capacity Initial capacity, at least 1.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If capacity is less than 1.
+   */
+  public MinMaxHeapPriorityQueue(int capacity, Comparator<T> cmp) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be at least 1");
+    }
+    heap = new Object[capacity];
+    this.cmp = cmp;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T at(int i) {
+    return (T) heap[i];
+  }
+
+  // Does a belong closer to the root than b on a best (or worst) level?
+  private boolean before(T a, T b, boolean best) {
+    int c = cmp.compare(a, b);
+    return best ? c > 0 : c < 0;
+  }
+
+  // Even levels hold "best" elements, odd levels "worst" ones.
+  private static boolean bestLevel(int i) {
+    return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+  }
+
+  @Override
+  public void insert(T t) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, size * 2);
+    }
+    int i = size++;
+    if (i == 0) {
+      heap[0] = t;
+      return;
+    }
+    int parent = (i - 1) / 2;
+    boolean best = bestLevel(i);
+    // if t is on the wrong kind of level for it, the parent moves down
+    // and t climbs the other kind of level instead
+    if (before(t, at(parent), !best)) {
+      heap[i] = heap[parent];
+      climb(parent, t, !best);
+    } else {
+      climb(i, t, best);
+    }
+  }
+
+  // Moves the hole at slot i up through grandparents (levels of the
+  // same kind) until t fits, then puts t there.
+  private void climb(int i, T t, boolean best) {
+    int curr = i;
+    while (curr > 2) {
+      int grand = ((curr - 1) / 2 - 1) / 2;
+      if (!before(t, at(grand), best)) {
+        break;
+      }
+      heap[curr] = heap[grand];
+      curr = grand;
+    }
+    heap[curr] = t;
+  }
+
+  // Slot of the worst element in a non-empty heap.
+  private int worstIndex() {
+    if (size == 1) {
+      return 0;
+    }
+    if (size == 2) {
+      return 1;
+    }
+    return before(at(1), at(2), false) ? 1 : 2;
+  }
+
+  // Removes the element at slot i, which must be 0 or worstIndex().
+  // Needs a non-empty heap.
+  private void removeAt(int i) {
+    T last = at(--size);
+    heap[size] = null; // don't hang on to removed elements
+    if (i < size) {
+      sink(i, last, bestLevel(i));
+    }
+  }
+
+  // Moves the hole at slot i down until t fits, then puts t there. On a
+  // best level the hole follows the best of the (up to six) children and
+  // grandchildren, on a worst level the worst.
+  private void sink(int i, T t, boolean best) {
+    int curr = i;
+    while (true) {
+      int first = 2 * curr + 1;
+      if (first >= size) {
+        break;
+      }
+      // best (or worst) of the children and grandchildren
+      int m = first;
+      if (first + 1 < size && before(at(first + 1), at(m), best)) {
+        m = first + 1;
+      }
+      int end = Math.min(4 * curr + 7, size);
+      for (int j = 4 * curr + 3; j < end; j++) {
+        if (before(at(j), at(m), best)) {
+          m = j;
+        }
+      }
+      if (!before(at(m), t, best)) {
+        break;
+      }
+      heap[curr] = heap[m];
+      if (m <= first + 1) {
+        curr = m; // a child, so t fits right there
+        break;
+      }
+      // a grandchild: t might not fit under the parent between them,
+      // which is on the other kind of level
+      int parent = (m - 1) / 2;
+      if (before(t, at(parent), !best)) {
+        T p = at(parent);
+        heap[parent] = t;
+        t = p;
+      }
+      curr = m;
+    }
+    heap[curr] = t;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    removeAt(0);
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return at(0);
+  }
+
+  /**
+   * Return worst value.
+   *
+   * @return worst value in the queue.
+   * @throws EmptyException If queue is empty.
+   */
+  public T worst() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return at(worstIndex());
+  }
+
+  /**
+   * Remove worst value.
+   *
+   * @throws EmptyException If queue is empty.
+   */
+  public void removeWorst() throws EmptyException {
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    removeAt(worstIndex());
+  }
+
+  /**
+   * Remove the worst value, unless the queue is empty.
+   *
+   * @return the value that was removed, or null if the queue was empty.
+   */
+  public T pollWorstOrNull() {
+    if (size == 0) {
+      return null;
+    }
+    int w = worstIndex();
+    T t = at(w);
+    removeAt(w);
+    return t;
+  }
+
+  @Override
+  public boolean empty() {
+    return size == 0;
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the MinMaxHeapPriorityQueue to test, and test its worst
+ * end the way PriorityQueueTest tests the best end.
+ */
+public class MinMaxHeapPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new MinMaxHeapPriorityQueue<>();
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new MinMaxHeapPriorityQueue<>(comp);
+  }
+
+  private MinMaxHeapPriorityQueue<Integer> minMax() {
+    return (MinMaxHeapPriorityQueue<Integer>) unit;
+  }
+
+  private MinMaxHeapPriorityQueue<Integer> reverseMinMax() {
+    return (MinMaxHeapPriorityQueue<Integer>) reverseUnit;
+  }
+
+  @Test(expected = EmptyException.class)
+  public void worstThrowsEmptyExceptionForUnit() {
+    minMax().worst();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeWorstThrowsEmptyExceptionForReverseUnit() {
+    reverseMinMax().removeWorst();
+  }
+
+  @Test
+  public void pollWorstOrNullOnEmptyQueue() {
+    assertNull(minMax().pollWorstOrNull());
+  }
+
+  @Test
+  public void testInsertUpdatesWorst() {
+    minMax().insert(5);
+    assertEquals(5, minMax().worst().intValue());
+    minMax().insert(3);
+    assertEquals(3, minMax().worst().intValue());
+    minMax().insert(9);
+    assertEquals(3, minMax().worst().intValue());
+
+    reverseMinMax().insert(5);
+    reverseMinMax().insert(3);
+    reverseMinMax().insert(9);
+    assertEquals(9, reverseMinMax().worst().intValue());
+    assertEquals(3, reverseMinMax().best().intValue());
+  }
+
+  @Test
+  public void testRemoveWorstInSortedOrder() {
+    Random r = new Random(22);
+    ArrayList<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      int v = r.nextInt(100);
+      values.add(v);
+      minMax().insert(v);
+      reverseMinMax().insert(v);
+    }
+    Collections.sort(values);
+    for (int i = 0; i < values.size(); i++) {
+      assertEquals(values.get(i), minMax().worst());
+      minMax().removeWorst();
+      assertEquals(values.get(values.size() - 1 - i),
+          reverseMinMax().pollWorstOrNull());
+    }
+    assertTrue(minMax().empty());
+    assertTrue(reverseMinMax().empty());
+  }
+
+  @Test
+  public void testBothEndsAgainstReference() {
+    MinMaxHeapPriorityQueue<Integer> pq =
+        new MinMaxHeapPriorityQueue<>(1, Comparator.<Integer>naturalOrder());
+    ArrayList<Integer> ref = new ArrayList<>();
+    Random r = new Random(23);
+    for (int i = 0; i < 5000; i++) {
+      int op = r.nextInt(4);
+      if (ref.isEmpty() || op < 2) {
+        int v = r.nextInt(1000);
+        pq.insert(v);
+        ref.add(v);
+      } else if (op == 2) {
+        ref.remove(Collections.max(ref));
+        pq.remove();
+      } else {
+        ref.remove(Collections.min(ref));
+        pq.removeWorst();
+      }
+      assertEquals(ref.size(), pq.size());
+      if (!ref.isEmpty()) {
+        assertEquals(Collections.max(ref), pq.best());
+        assertEquals(Collections.min(ref), pq.worst());
+      }
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.random.RandomGenerator;
+
+/**
+ * Thread-safe, relaxed priority queue built from several binary heaps.
+ *
+ * <p>This is the "MultiQueue" of Rihani, Sanders and Dementiev: there are
+ * c * threads shards, each a BinaryHeapPriorityQueue behind its own lock.
+ * insert() picks a random shard; remove() picks two random shards and
+ * removes from the one with the better top. Threads only ever try-lock
+ * a shard and pick another one if it's busy, so they hardly ever
+ * wait for each other.</p>
+ *
+ * <p>The price is that remove() takes <b>a</b> good value, not
+ * necessarily <b>the</b> best one: on average the removed value ranks
+ * O(c * threads) from the top. With a single shard the queue is exact.
+ * best() looks at all shard tops and returns the best of them. The
+ * "rank" benchmark in PriorityQueueBenchmark measures the actual rank
+ * error.</p>
+ *
+ * @param <T> Element type.
+ */
+public class MultiQueuePriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private static final int DEFAULT_C = 2;
+
+  private final Shard<T>[] shards;
+  private final Comparator<T> cmp;
+  private final AtomicInteger size = new AtomicInteger();
+  private final RandomGenerator random;
+
+  /**
+   * A multi-queue using the "natural" ordering of T, with two shards per
+   * available processor.
+   */
+  public MultiQueuePriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * A multi-queue using the given comparator for T, with two shards per
+   * available processor.
+   *
+   * @param cmp Comparator to use.
+   */
+  public MultiQueuePriorityQueue(Comparator<T> cmp) {
+    this(DEFAULT_C, Runtime.getRuntime().availableProcessors(), cmp);
+  }
+
+  /**
+   * A multi-queue using the "natural" ordering of T.
+   *
+   * @param c Relaxation factor: shards per thread, at least 1.
+   * @param threads Number of threads expected to use the queue.
+   * @throws IllegalArgumentException If c or threads is less than 1.
+   */
+  public MultiQueuePriorityQueue(int c, int threads) {
+    this(c, threads, new DefaultComparator<>());
+  }
+
+  /**
+   * A multi-queue using the given comparator for T.
+   *
+   * @param c Relaxation factor: shards per thread, at least 1.
+   * @param threads Number of threads expected to use the queue.
+   * @param cmp Comparator to use.
+   * @throws IllegalArgumentException If c or threads is less than 1.
+   */
+  public MultiQueuePriorityQueue(int c, int threads, Comparator<T> cmp) {
+    this(c, threads, cmp, null);
+  }
+
+  /**
+   * A multi-queue using the given comparator for T, picking shards with
+   * the given random numbers.
+   *
+   * <p>With a seeded generator, a queue used by a single thread picks
+   * the same shards every run, so its removals come out in the same
+   * relaxed order every time.</p>
+   *
+   * @param c Relaxation factor: shards per thread, at least 1.
+   * @param threads Number of threads expected to use the queue.
+   * @param cmp Comparator to use.
+   * @param random Random numbers for picking shards; it has to be safe
+   *               to call from several threads at once, like a
+   *               java.util.Random. Null means a ThreadLocalRandom for
+   *               each thread, which is the fastest.
+   * @throws IllegalArgumentException If c or threads is less than 1.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public MultiQueuePriorityQueue(int c, int threads, Comparator<T> cmp,
+                                 RandomGenerator random) {
+    if (c < 1 || threads < 1) {
+      throw new IllegalArgumentException("need at least one shard");
+    }
+    this.cmp = cmp;
+    this.random = random;
+    shards = (Shard<T>[]) new Shard[c * threads];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new Shard<>(cmp);
+    }
+  }
+
+  /**
+   * Number of shards.
+   *
+   * @return the number of internal heaps.
+   */
+  public int shards() {
+    return shards.length;
+  }
+
+  // Is top a better than top b? Empty shards (null) are worst.
+  private boolean better(T a, T b) {
+    return a != null && (b == null || cmp.compare(a, b) > 0);
+  }
+
+  // The random numbers to pick shards with in this thread.
+  private RandomGenerator random() {
+    return random != null ? random : ThreadLocalRandom.current();
+  }
+
+  @Override
+  public void insert(T t) {
+    RandomGenerator r = random();
+    while (true) {
+      Shard<T> s = shards[r.nextInt(shards.length)];
+      if (s.lock.tryLock()) {
+        try {
+          s.heap.insert(t);
+          s.top = s.heap.best();
+          // count it before anyone can remove it, or size could dip
+          // below zero
+          size.incrementAndGet();
+        } finally {
+          s.lock.unlock();
+        }
+        return;
+      }
+    }
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (pollOrNull() == null) {
+      throw EmptyException.create();
+    }
+  }
+
+  /**
+   * Remove and return a good value, without throwing on empty.
+   *
+   * <p>Use this instead of best() followed by remove() when other
+   * threads may be removing values too, and to find out which value
+   * the relaxed remove actually took.</p>
+   *
+   * @return removed value, or null if the queue is empty.
+   */
+  @Override
+  public T pollOrNull() {
+    RandomGenerator r = random();
+    while (size.get() > 0) {
+      Shard<T> a = shards[r.nextInt(shards.length)];
+      Shard<T> b = shards[r.nextInt(shards.length)];
+      Shard<T> s = better(b.top, a.top) ? b : a;
+      if (s.top == null) {
+        s = bestShard(); // both samples empty, look everywhere
+        if (s == null) {
+          continue;
+        }
+      }
+      if (s.lock.tryLock()) {
+        try {
+          if (!s.heap.empty()) {
+            T t = s.heap.best();
+            s.heap.remove();
+            s.top = s.heap.empty() ? null : s.heap.best();
+            size.decrementAndGet();
+            return t;
+          }
+        } finally {
+          s.lock.unlock();
+        }
+      }
+    }
+    return null;
+  }
+
+  // The shard with the best top right now, or null if all look empty.
+  private Shard<T> bestShard() {
+    Shard<T> best = null;
+    T top = null;
+    for (Shard<T> s : shards) {
+      T t = s.top;
+      if (better(t, top)) {
+        best = s;
+        top = t;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    T top = peekOrNull();
+    if (top == null) {
+      throw EmptyException.create();
+    }
+    return top;
+  }
+
+  @Override
+  public T peekOrNull() {
+    Shard<T> s = bestShard();
+    return s == null ? null : s.top;
+  }
+
+  @Override
+  public boolean empty() {
+    return size.get() == 0;
+  }
+
+  // A heap plus its lock and a copy of its top that can be read without
+  // taking the lock.
+  private static final class Shard<T extends Comparable<T>> {
+    final ReentrantLock lock = new ReentrantLock();
+    final BinaryHeapPriorityQueue<T> heap;
+    volatile T top;
+
+    Shard(Comparator<T> cmp) {
+      heap = new BinaryHeapPriorityQueue<>(cmp);
+    }
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
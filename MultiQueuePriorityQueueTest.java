@@ -0,0 +1,113 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the MultiQueuePriorityQueue to test.
+ *
+ * <p>The shared tests expect exact ordering, so they run against a single
+ * shard; the relaxed ordering is measured separately.</p>
+ */
+public class MultiQueuePriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new MultiQueuePriorityQueue<>(1, 1);
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new MultiQueuePriorityQueue<>(1, 1, comp);
+  }
+
+  // Drains pq, which holds 0 .. n-1, and returns the rank error of every
+  // remove.
+  private static int[] rankErrors(MultiQueuePriorityQueue<Integer> pq,
+                                  int n) {
+    return TestSupport.rankErrors(pq, IntStream.range(0, n).toArray());
+  }
+
+  @Test
+  public void rankErrorGrowsWithShards() {
+    int n = 20000;
+    ArrayList<Integer> values = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      values.add(i);
+    }
+    Collections.shuffle(values, new Random(3));
+    Comparator<Integer> natural = Comparator.naturalOrder();
+    for (int c : new int[] {1, 2, 4}) {
+      // seeded, so the shards picked and the errors are the same every run
+      MultiQueuePriorityQueue<Integer> pq =
+          new MultiQueuePriorityQueue<>(c, 4, natural, new Random(c));
+      pq.insertAll(values);
+      long sum = 0;
+      int max = 0;
+      for (int e : rankErrors(pq, n)) {
+        sum += e;
+        max = Math.max(max, e);
+      }
+      double mean = (double) sum / n;
+      assertTrue("mean rank error " + mean, mean <= pq.shards());
+      assertTrue("max rank error " + max, max < 20 * pq.shards());
+    }
+  }
+
+  @Test
+  public void singleShardIsExact() {
+    MultiQueuePriorityQueue<Integer> pq =
+        new MultiQueuePriorityQueue<>(1, 1);
+    for (int i = 0; i < 1000; i++) {
+      pq.insert((i * 7919) % 1000);
+    }
+    for (int e : rankErrors(pq, 1000)) {
+      assertEquals(0, e);
+    }
+  }
+
+  @Test
+  public void concurrentUseLosesNothing() throws InterruptedException {
+    int perThread = 20000;
+    int threads = 4;
+    MultiQueuePriorityQueue<Integer> pq =
+        new MultiQueuePriorityQueue<>(2, threads);
+    AtomicIntegerArray seen = new AtomicIntegerArray(perThread * threads);
+    ArrayList<Thread> workers = new ArrayList<>();
+    for (int p = 0; p < threads; p++) {
+      final int base = p * perThread;
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          pq.insert(base + i);
+          if (i % 2 == 1) {
+            Integer v = pq.pollOrNull();
+            if (v != null) {
+              seen.incrementAndGet(v);
+            }
+          }
+        }
+      }));
+    }
+    for (Thread t : workers) {
+      t.start();
+    }
+    for (Thread t : workers) {
+      t.join();
+    }
+    Integer v;
+    while ((v = pq.pollOrNull()) != null) {
+      seen.incrementAndGet(v);
+    }
+    assertTrue(pq.empty());
+    for (int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+}
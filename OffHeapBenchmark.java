@@ -0,0 +1,117 @@
+package hw5;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH comparison of what a big queue costs the garbage collector, off
+ * the heap and on it.
+ *
+ * <p>The queue holds size records for the whole run: an
+ * OffHeapPriorityQueue ("offheap"), or a BinaryHeapPriorityQueue of
+ * boxed Longs ("onheap"), which is size objects for the collector to
+ * trace. Benchmarks:</p>
+ * <ul>
+ *   <li>fullGc: one System.gc(), a stop-the-world full collection with
+ *       the queue live, so the time is the pause.</li>
+ *   <li>hold: one remove-then-insert pair. Run it with "-prof gc" for
+ *       the allocation rate and the time spent in collections.</li>
+ * </ul>
+ *
+ * <pre>
+ *   mvn test-compile exec:exec -Djmh.args="OffHeapBenchmark -prof gc"
+ * </pre>
+ *
+ * <p>The forked JVM gets a fixed 3GB heap so both queues fit at the
+ * largest default size and the heap size doesn't change under us.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class OffHeapBenchmark {
+  @Param({"offheap", "onheap"})
+  public String impl;
+
+  @Param({"1000000", "10000000"})
+  public int size;
+
+  private OffHeapPriorityQueue offHeap;
+  private BinaryHeapPriorityQueue<Long> onHeap;
+  private SplittableRandom random;
+
+  /** Make and fill the queue. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    random = new SplittableRandom(size);
+    switch (impl) {
+      case "offheap":
+        offHeap = new OffHeapPriorityQueue();
+        for (int i = 0; i < size; i++) {
+          offHeap.insert(random.nextLong(), i);
+        }
+        break;
+      case "onheap":
+        onHeap = new BinaryHeapPriorityQueue<>();
+        for (int i = 0; i < size; i++) {
+          onHeap.insert(random.nextLong());
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("unknown implementation " + impl
+            + ", pick from offheap, onheap");
+    }
+  }
+
+  /** Free the queue. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (offHeap != null) {
+      offHeap.close();
+    }
+    offHeap = null;
+    onHeap = null;
+  }
+
+  /** One full collection with the queue live. */
+  @Benchmark
+  public void fullGc() {
+    System.gc();
+  }
+
+  /**
+   * One remove-then-insert pair.
+   *
+   * @return the best key before the pair.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public long hold() {
+    long key = random.nextLong();
+    if (offHeap != null) {
+      long best = offHeap.bestKey();
+      offHeap.remove();
+      offHeap.insert(key, best);
+      return best;
+    }
+    long best = onHeap.best();
+    onHeap.remove();
+    onHeap.insert(key);
+    return best;
+  }
+}
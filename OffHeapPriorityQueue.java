@@ -0,0 +1,276 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+/**
+ * Priority queue of (long key, long id) records kept outside the Java heap.
+ *
+ * <p>Same ranked array layout as LongKeyedPriorityQueue, but the records
+ * are 16-byte (key, id) pairs stored in native memory segments. The
+ * garbage collector sees a handful of segment objects instead of
+ * hundreds of millions of entries, so a huge queue costs it next to
+ * nothing to scan.</p>
+ *
+ * <p>The records are spread over fixed-size chunks: record i lives in
+ * chunk i / chunkRecords. Growing the queue just adds a chunk; nothing
+ * gets copied.</p>
+ *
+ * <p>By default best == max key; pass true to the constructor to get a
+ * queue where best == min key instead (handy for deadlines).</p>
+ *
+ * <p>All chunks come from one shared java.lang.foreign.Arena, so the
+ * queue can be handed from thread to thread, though like the other
+ * queues it must only be used by one at a time. The memory is plain
+ * malloc'ed memory: it doesn't count against -Xmx or the direct memory
+ * limit, only against what the machine has. 200 million records take
+ * 3.2GB.</p>
+ *
+ * <p>Call close() when done. It closes the arena, which frees all the
+ * chunks right there, without waiting for the garbage collector. Any use
+ * of the queue after close() throws an IllegalStateException.</p>
+ *
+ * <p>This uses the foreign memory API, a preview feature in Java 21, so
+ * it has to be compiled and run with --enable-preview.</p>
+ */
+public class OffHeapPriorityQueue implements AutoCloseable {
+  private static final int RECORD_BYTES = 16; // long key, long id
+  private static final int DEFAULT_CHUNK_RECORDS = 1 << 16; // 1MB chunks
+
+  private Arena arena;
+  private MemorySegment[] chunks;
+  private int chunkCount;
+  private final int shift;
+  private final int mask;
+  private int size;
+  private final boolean min;
+
+  /**
+   * An off-heap queue where best is the largest key.
+   */
+  public OffHeapPriorityQueue() {
+    this(false);
+  }
+
+  /**
+   * An off-heap queue with the given ordering.
+   *
+   * @param min True if best should be the smallest key,
+   *            false if it should be the largest.
+   */
+  public OffHeapPriorityQueue(boolean min) {
+    this(min, DEFAULT_CHUNK_RECORDS);
+  }
+
+  /**
+   * An off-heap queue with the given ordering and chunk size.
+   *
+   * @param min True if best should be the smallest key,
+   *            false if it should be the largest.
+   * @param chunkRecords Records per chunk, a power of two.
+   * @throws IllegalArgumentException If chunkRecords isn't a power of
+   *                                  two.
+   */
+  public OffHeapPriorityQueue(boolean min, int chunkRecords) {
+    if (chunkRecords <= 0 || Integer.bitCount(chunkRecords) != 1) {
+      throw new IllegalArgumentException("chunk size must be a power of two");
+    }
+    this.min = min;
+    shift = Integer.numberOfTrailingZeros(chunkRecords);
+    mask = chunkRecords - 1;
+    chunks = new MemorySegment[4];
+    arena = Arena.ofShared();
+  }
+
+  // Should key a be closer to the root than key b?
+  private boolean better(long a, long b) {
+    return min ? a < b : a > b;
+  }
+
+  private MemorySegment chunk(int i) {
+    return chunks[i >>> shift];
+  }
+
+  // Byte offset of record i inside its chunk.
+  private long offset(int i) {
+    return (long) (i & mask) * RECORD_BYTES;
+  }
+
+  private long key(int i) {
+    return chunk(i).get(ValueLayout.JAVA_LONG, offset(i));
+  }
+
+  private long id(int i) {
+    return chunk(i).get(ValueLayout.JAVA_LONG, offset(i) + 8);
+  }
+
+  private void set(int i, long key, long id) {
+    MemorySegment c = chunk(i);
+    long o = offset(i);
+    c.set(ValueLayout.JAVA_LONG, o, key);
+    c.set(ValueLayout.JAVA_LONG, o + 8, id);
+  }
+
+  private void checkOpen() {
+    if (arena == null) {
+      throw new IllegalStateException("queue is closed");
+    }
+  }
+
+  // Adds a chunk if record i doesn't have one yet.
+  private void ensureRoom(int i) {
+    int c = i >>> shift;
+    if (c < chunkCount) {
+      return;
+    }
+    if (c == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunks.length * 2);
+    }
+    chunks[c] = arena.allocate((long) (mask + 1) * RECORD_BYTES,
+        ValueLayout.JAVA_LONG.byteAlignment());
+    chunkCount++;
+  }
+
+  /**
+   * Insert a record.
+   *
+   * <p>Duplicate keys are allowed; records with equal keys come out
+   * in no particular order.</p>
+   *
+   * @param key Priority of the record.
+   * @param id Payload of the record.
+   * @throws IllegalStateException If the queue is closed or full.
+   * @throws OutOfMemoryError If the system can't provide a new chunk.
+   */
+  public void insert(long key, long id) {
+    checkOpen();
+    if (size == Integer.MAX_VALUE) {
+      throw new IllegalStateException("queue is full");
+    }
+    ensureRoom(size);
+    int curr = size++;
+    while (curr > 0) {
+      int parent = (curr - 1) >>> 1;
+      long p = key(parent);
+      if (!better(key, p)) {
+        break;
+      }
+      set(curr, p, id(parent));
+      curr = parent;
+    }
+    set(curr, key, id);
+  }
+
+  /**
+   * Remove the record with the best key.
+   *
+   * @throws EmptyException If queue is empty.
+   * @throws IllegalStateException If the queue is closed.
+   */
+  public void remove() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    size--;
+    long lastKey = key(size);
+    long lastId = id(size);
+    int curr = 0;
+    int half = size >>> 1;
+    while (curr < half) {
+      int child = 2 * curr + 1;
+      long c = key(child);
+      if (child + 1 < size) {
+        long r = key(child + 1);
+        if (better(r, c)) {
+          child++;
+          c = r;
+        }
+      }
+      if (!better(c, lastKey)) {
+        break;
+      }
+      set(curr, c, id(child));
+      curr = child;
+    }
+    if (size > 0) {
+      set(curr, lastKey, lastId);
+    }
+  }
+
+  /**
+   * Return the best key.
+   *
+   * @return best key in the queue.
+   * @throws EmptyException If queue is empty.
+   * @throws IllegalStateException If the queue is closed.
+   */
+  public long bestKey() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return key(0);
+  }
+
+  /**
+   * Return the id stored with the best key.
+   *
+   * @return id of the best record in the queue.
+   * @throws EmptyException If queue is empty.
+   * @throws IllegalStateException If the queue is closed.
+   */
+  public long bestId() throws EmptyException {
+    checkOpen();
+    if (size == 0) {
+      throw EmptyException.create();
+    }
+    return id(0);
+  }
+
+  /**
+   * Check if no records present.
+   *
+   * @return True if queue is empty, false otherwise.
+   */
+  public boolean empty() {
+    return size == 0;
+  }
+
+  /**
+   * Number of records in the queue.
+   *
+   * @return Number of records.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Bytes of native memory currently held by the queue.
+   *
+   * @return bytes allocated for records, used or not.
+   */
+  public long reservedBytes() {
+    return (long) chunkCount * (mask + 1) * RECORD_BYTES;
+  }
+
+  /**
+   * Free all the native memory of the queue, right away. Closing twice
+   * is fine.
+   */
+  @Override
+  public void close() {
+    if (arena == null) {
+      return;
+    }
+    arena.close();
+    arena = null;
+    chunks = null;
+    chunkCount = 0;
+    size = 0;
+  }
+}
@@ -0,0 +1,145 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testing the OffHeapPriorityQueue, mirroring PriorityQueueTest.
+ */
+public class OffHeapPriorityQueueTest {
+  private OffHeapPriorityQueue unit;
+  private OffHeapPriorityQueue reverseUnit;
+
+  @Before
+  public void setupTests() {
+    unit = new OffHeapPriorityQueue();
+    // tiny chunks so the tests cross plenty of chunk boundaries
+    reverseUnit = new OffHeapPriorityQueue(true, 8);
+  }
+
+  @After
+  public void closeUnits() {
+    unit.close();
+    reverseUnit.close();
+  }
+
+  @Test
+  public void newQueueEmpty() {
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+    assertEquals(0, unit.reservedBytes());
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestThrowsEmptyExceptionForUnit() {
+    unit.bestKey();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void bestIdThrowsEmptyExceptionForReverseUnit() {
+    reverseUnit.bestId();
+  }
+
+  @Test(expected = EmptyException.class)
+  public void removeThrowsEmptyExceptionForUnit() {
+    unit.remove();
+  }
+
+  @Test
+  public void queueNotEmptyAfterInsert() {
+    unit.insert(1, 10);
+    assertFalse(unit.empty());
+    assertEquals(1, unit.size());
+    assertEquals(1L << 20, unit.reservedBytes());
+  }
+
+  @Test
+  public void idsTravelWithTheirKeys() {
+    long[] keys = {5, -3, 9, 0, Long.MAX_VALUE, Long.MIN_VALUE, 7};
+    for (long k : keys) {
+      unit.insert(k, k * 2 + 1);
+      reverseUnit.insert(k, k * 2 + 1);
+    }
+    long[] sorted = keys.clone();
+    Arrays.sort(sorted);
+    for (int i = 0; i < sorted.length; i++) {
+      long max = sorted[sorted.length - 1 - i];
+      assertEquals(max, unit.bestKey());
+      assertEquals(max * 2 + 1, unit.bestId());
+      unit.remove();
+      assertEquals(sorted[i], reverseUnit.bestKey());
+      assertEquals(sorted[i] * 2 + 1, reverseUnit.bestId());
+      reverseUnit.remove();
+    }
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test
+  public void manyChunksWithDuplicates() {
+    Random r = new Random(17);
+    long[] keys = new long[5000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = r.nextInt(100);
+      reverseUnit.insert(keys[i], i);
+    }
+    assertEquals(5000L * 16, reverseUnit.reservedBytes());
+    Arrays.sort(keys);
+    for (long k : keys) {
+      assertEquals(k, reverseUnit.bestKey());
+      reverseUnit.remove();
+    }
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedQueueRejectsInsert() {
+    unit.insert(1, 1);
+    unit.close();
+    unit.insert(2, 2);
+  }
+
+  @Test
+  public void closeReleasesChunks() {
+    unit.insert(1, 1);
+    unit.close();
+    unit.close();
+    assertTrue(unit.empty());
+    assertEquals(0, unit.reservedBytes());
+  }
+
+  @Test
+  public void closedQueueCanBeClosedFromAnotherThread()
+      throws InterruptedException {
+    unit.insert(3, 30);
+    long[] seen = new long[1];
+    Thread t = new Thread(() -> {
+      seen[0] = unit.bestId();
+      unit.close();
+    });
+    t.start();
+    t.join();
+    assertEquals(30, seen[0]);
+    assertEquals(0, unit.reservedBytes());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closedQueueRejectsBest() {
+    unit.insert(1, 1);
+    unit.close();
+    unit.bestKey();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void chunkSizeMustBePowerOfTwo() {
+    new OffHeapPriorityQueue(false, 100);
+  }
+}
@@ -0,0 +1,333 @@
+package hw5;
+
+import exceptions.EmptyException;
+import exceptions.PositionException;
+import java.util.Comparator;
+
+/**
+ * Priority queue implemented as a pairing heap.
+ *
+ * <p>A pairing heap is a tree where every node is no worse than its
+ * children; the children of a node are kept in a linked list (child
+ * points at the first one, sibling at the next one, prev back at the
+ * previous sibling or, for the first child, at the parent). Two heaps are
+ * combined by "linking" their roots, making the worse root the first
+ * child of the better one, so insert() and meld() take O(1) time. The
+ * real work happens in remove(), which links the orphaned children of
+ * the old root in two passes, for O(log n) amortized time.</p>
+ *
+ * <p>Like AddressableBinaryHeapPriorityQueue, insertHandle() returns a
+ * Position that can be used to update or remove its value later. Making
+ * a value better just cuts its subtree loose and links it to the root,
+ * so that's cheap too.</p>
+ *
+ * @param <T> Element type.
+ */
+public class PairingHeapPriorityQueue<T extends Comparable<T>>
+    implements SizedPriorityQueue<T> {
+
+  private Node<T> root;
+  private int size;
+  private Comparator<T> cmp;
+  // Marks the nodes owned by this heap. Melded heaps point their old tag
+  // at ours so positions handed out by them stay valid over here.
+  private Tag tag;
+
+  /**
+   * A pairing heap using the "natural" ordering of T.
+   */
+  public PairingHeapPriorityQueue() {
+    this(new DefaultComparator<>());
+  }
+
+  /**
+   * A pairing heap using the given comparator for T.
+   *
+   * @param cmp Comparator to use.
+   */
+  public PairingHeapPriorityQueue(Comparator<T> cmp) {
+    this.cmp = cmp;
+    tag = new Tag(this);
+  }
+
+  // Convert a position back into a node. Guards against null positions,
+  // positions from other data structures, and positions that are no
+  // longer in this heap.
+  private Node<T> convert(Position<T> p) throws PositionException {
+    try {
+      Node<T> n = (Node<T>) p;
+      if (n.tag == null || n.tag.find() != tag) {
+        throw PositionException.create();
+      }
+      return n;
+    } catch (NullPointerException | ClassCastException e) {
+      throw PositionException.create();
+    }
+  }
+
+  // Make the worse of two roots the first child of the better one.
+  private Node<T> link(Node<T> a, Node<T> b) {
+    if (cmp.compare(a.value, b.value) < 0) {
+      Node<T> t = a;
+      a = b;
+      b = t;
+    }
+    b.prev = a;
+    b.sibling = a.child;
+    if (a.child != null) {
+      a.child.prev = b;
+    }
+    a.child = b;
+    return a;
+  }
+
+  // Link a list of siblings into a single tree: first pair them up left
+  // to right, then fold the pairs together right to left. Iterative so
+  // that long child lists don't blow the stack.
+  private Node<T> mergePairs(Node<T> first) {
+    if (first == null) {
+      return null;
+    }
+    Node<T> pairs = null; // pairs in reverse order, chained by sibling
+    Node<T> a = first;
+    while (a != null) {
+      Node<T> b = a.sibling;
+      Node<T> next = b == null ? null : b.sibling;
+      a.prev = null;
+      a.sibling = null;
+      if (b != null) {
+        b.prev = null;
+        b.sibling = null;
+        a = link(a, b);
+      }
+      a.sibling = pairs;
+      pairs = a;
+      a = next;
+    }
+    Node<T> result = pairs;
+    pairs = pairs.sibling;
+    result.sibling = null;
+    while (pairs != null) {
+      Node<T> next = pairs.sibling;
+      pairs.sibling = null;
+      result = link(result, pairs);
+      pairs = next;
+    }
+    return result;
+  }
+
+  // Detach the subtree rooted at n (not the root) from its parent.
+  private void cut(Node<T> n) {
+    if (n.prev.child == n) {
+      n.prev.child = n.sibling;
+    } else {
+      n.prev.sibling = n.sibling;
+    }
+    if (n.sibling != null) {
+      n.sibling.prev = n.prev;
+    }
+    n.prev = null;
+    n.sibling = null;
+  }
+
+  // Take n out of the heap, leaving all other nodes in place.
+  private void detach(Node<T> n) {
+    if (n == root) {
+      root = mergePairs(n.child);
+    } else {
+      cut(n);
+      Node<T> sub = mergePairs(n.child);
+      if (sub != null) {
+        root = link(root, sub);
+      }
+    }
+    n.child = null;
+    size--;
+  }
+
+  // Put a detached node back in as a tree of its own.
+  private void attach(Node<T> n) {
+    root = root == null ? n : link(root, n);
+    size++;
+  }
+
+  @Override
+  public void insert(T t) {
+    insertHandle(t);
+  }
+
+  /**
+   * Insert a value and get a handle to it.
+   *
+   * <p>Calling put() on the position is the same as calling update()
+   * with it on the heap that currently holds it.</p>
+   *
+   * @param t Value to insert.
+   * @return Position holding the value until it is removed.
+   */
+  public Position<T> insertHandle(T t) {
+    Node<T> n = new Node<>(this, t);
+    attach(n);
+    return n;
+  }
+
+  /**
+   * Change the value at a position.
+   *
+   * <p>Making the value better takes O(1) time, making it worse takes
+   * O(log n) amortized time.</p>
+   *
+   * @param p Position to change.
+   * @param t New value.
+   * @throws PositionException If p is invalid or already removed.
+   */
+  public void update(Position<T> p, T t) throws PositionException {
+    Node<T> n = convert(p);
+    int c = cmp.compare(t, n.value);
+    n.value = t;
+    if (c > 0 && n != root) {
+      cut(n);
+      root = link(root, n);
+    } else if (c < 0) {
+      detach(n);
+      attach(n);
+    }
+  }
+
+  /**
+   * Remove the value at a position.
+   *
+   * @param p Position to remove.
+   * @throws PositionException If p is invalid or already removed.
+   */
+  public void remove(Position<T> p) throws PositionException {
+    Node<T> n = convert(p);
+    detach(n);
+    n.tag = null;
+  }
+
+  /**
+   * Check if a position is still in this queue.
+   *
+   * @param p Position to examine.
+   * @return True if p belongs to this queue and was not yet removed.
+   */
+  public boolean contains(Position<T> p) {
+    if (!(p instanceof Node)) {
+      return false;
+    }
+    Tag t = ((Node<?>) p).tag;
+    return t != null && t.find() == tag;
+  }
+
+  /**
+   * Move all values of another heap into this one in O(1) time.
+   *
+   * <p>The other heap is left empty but usable, and positions handed out
+   * by it now belong to this heap. Both heaps are expected to use the
+   * same ordering.</p>
+   *
+   * @param other Heap to take the values from.
+   * @throws IllegalArgumentException If other is this heap.
+   */
+  public void meld(PairingHeapPriorityQueue<T> other) {
+    if (other == this) {
+      throw new IllegalArgumentException("cannot meld a heap with itself");
+    }
+    if (other.root != null) {
+      root = root == null ? other.root : link(root, other.root);
+      size += other.size;
+    }
+    other.tag.parent = tag;
+    other.tag = new Tag(other);
+    other.root = null;
+    other.size = 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (root == null) {
+      throw EmptyException.create();
+    }
+    Node<T> n = root;
+    detach(n);
+    n.tag = null;
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    if (root == null) {
+      throw EmptyException.create();
+    }
+    return root.value;
+  }
+
+  @Override
+  public boolean empty() {
+    return root == null;
+  }
+
+  // Ownership tags form a union-find forest; the root tag of a node's
+  // tree identifies the heap that currently owns the node.
+  private static final class Tag {
+    final PairingHeapPriorityQueue<?> heap;
+    Tag parent;
+
+    Tag(PairingHeapPriorityQueue<?> heap) {
+      this.heap = heap;
+    }
+
+    Tag find() {
+      Tag t = this;
+      while (t.parent != null) {
+        if (t.parent.parent != null) {
+          t.parent = t.parent.parent; // path halving
+        }
+        t = t.parent;
+      }
+      return t;
+    }
+  }
+
+  // A node of the heap, doubling as the position handed out for it.
+  private static final class Node<T extends Comparable<T>>
+      implements Position<T> {
+    Tag tag; // null once removed
+    T value;
+    Node<T> child;
+    Node<T> sibling;
+    Node<T> prev;
+
+    Node(PairingHeapPriorityQueue<T> heap, T value) {
+      this.tag = heap.tag;
+      this.value = value;
+    }
+
+    @Override
+    public T get() {
+      return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void put(T t) {
+      if (tag == null) {
+        throw PositionException.create();
+      }
+      ((PairingHeapPriorityQueue<T>) tag.find().heap).update(this, t);
+    }
+  }
+
+  // The default comparator uses the "natural" ordering.
+  private static class DefaultComparator<T extends Comparable<T>>
+      implements Comparator<T> {
+    public int compare(T t1, T t2) {
+      return t1.compareTo(t2);
+    }
+  }
+}
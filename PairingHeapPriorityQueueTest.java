@@ -0,0 +1,99 @@
+package hw5;
+
+import exceptions.PositionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the PairingHeapPriorityQueue to test.
+ */
+public class PairingHeapPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return new PairingHeapPriorityQueue<>();
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    return new PairingHeapPriorityQueue<>(comp);
+  }
+
+  @Test
+  public void testMeld() {
+    PairingHeapPriorityQueue<Integer> a = new PairingHeapPriorityQueue<>();
+    PairingHeapPriorityQueue<Integer> b = new PairingHeapPriorityQueue<>();
+    a.insert(3);
+    a.insert(7);
+    Position<Integer> p = b.insertHandle(5);
+    b.insert(9);
+    a.meld(b);
+    assertTrue(b.empty());
+    assertEquals(4, a.size());
+    assertTrue(a.contains(p));
+    assertFalse(b.contains(p));
+    a.update(p, 10);
+    assertEquals(10, a.best().intValue());
+    b.insert(1); // still usable
+    assertEquals(1, b.best().intValue());
+    for (int v : new int[] {10, 9, 7, 3}) {
+      assertEquals(v, a.best().intValue());
+      a.remove();
+    }
+    assertTrue(a.empty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMeldWithSelf() {
+    PairingHeapPriorityQueue<Integer> a = new PairingHeapPriorityQueue<>();
+    a.meld(a);
+  }
+
+  @Test(expected = PositionException.class)
+  public void testRemovedHandleInvalid() {
+    PairingHeapPriorityQueue<Integer> pq = new PairingHeapPriorityQueue<>();
+    Position<Integer> p = pq.insertHandle(1);
+    pq.remove();
+    pq.update(p, 2);
+  }
+
+  @Test
+  public void testRandomUpdatesKeepOrder() {
+    PairingHeapPriorityQueue<Integer> pq =
+        new PairingHeapPriorityQueue<>(reverseComp);
+    ArrayList<Position<Integer>> handles = new ArrayList<>();
+    Random r = new Random(11);
+    for (int i = 0; i < 300; i++) {
+      handles.add(pq.insertHandle(r.nextInt(1000)));
+    }
+    pq.remove(); // forces a first round of pairing
+    for (int i = 0; i < 300; i++) {
+      Position<Integer> p = handles.get(r.nextInt(handles.size()));
+      if (pq.contains(p)) {
+        p.put(r.nextInt(1000));
+      }
+    }
+    for (int i = 0; i < 50; i++) {
+      Position<Integer> p = handles.remove(r.nextInt(handles.size()));
+      if (pq.contains(p)) {
+        pq.remove(p);
+      }
+    }
+    int prev = Integer.MIN_VALUE;
+    int count = 0;
+    while (!pq.empty()) {
+      int v = pq.best();
+      assertTrue(v >= prev);
+      prev = v;
+      pq.remove();
+      count++;
+    }
+    assertEquals(0, pq.size());
+    assertTrue(count >= 249);
+  }
+}
@@ -7,6 +7,13 @@ package exceptions;
  * if the position provided to them is null or otherwise invalid.</p>
  */
 public class PositionException extends RuntimeException {
+  // Set -Dexceptions.stackless=true to have create() hand out one shared
+  // instance without a stack trace, which is much cheaper to throw.
+  private static final boolean STACKLESS =
+      Boolean.getBoolean("exceptions.stackless");
+  private static final PositionException SHARED = new PositionException(
+      "invalid position (stackless)", false);
+
   /**
    * Constructs a new PositionException.
    */
@@ -23,4 +30,29 @@ public class PositionException extends RuntimeException {
   public PositionException(String message) {
     super(message);
   }
-}
\ No newline at end of file
+
+  // Only used for the shared instance: no cause, no suppression, and no
+  // stack trace.
+  private PositionException(String message, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+  }
+
+  /**
+   * Returns the shared PositionException without a stack trace.
+   *
+   * @return the one stackless instance.
+   */
+  public static PositionException stackless() {
+    return SHARED;
+  }
+
+  /**
+   * Returns a PositionException to throw: a fresh one by default, or the shared
+   * stackless one if the exceptions.stackless system property is true.
+   *
+   * @return the exception to throw.
+   */
+  public static PositionException create() {
+    return STACKLESS ? SHARED : new PositionException();
+  }
+}
@@ -1,6 +1,7 @@
 package hw5;
 
 import exceptions.EmptyException;
+import java.util.Collection;
 
 /**
  * Queue of ordered values.
@@ -30,6 +31,20 @@ public interface PriorityQueue<T extends Comparable<T>> {
    */
   void insert(T t);
 
+  /**
+   * Insert all values of a collection.
+   *
+   * <p>Same as calling insert() for each value, but implementations
+   * are free to do something smarter for big batches.</p>
+   *
+   * @param ts Values to insert.
+   */
+  default void insertAll(Collection<? extends T> ts) {
+    for (T t : ts) {
+      insert(t);
+    }
+  }
+
   /**
    * Remove best value.
    *
@@ -40,6 +55,42 @@ public interface PriorityQueue<T extends Comparable<T>> {
    */
   void remove() throws EmptyException;
 
+  /**
+   * Remove up to max best values, handing them over best first.
+   *
+   * <p>Unlike remove() this never throws on an empty queue, it just
+   * stops early; implementations can also skip the per-value checks
+   * and do the work in bulk.</p>
+   *
+   * @param sink Collection to add the removed values to, in order.
+   * @param max Maximum number of values to remove.
+   * @return Number of values actually removed.
+   */
+  default int drainTo(Collection<? super T> sink, int max) {
+    int n = 0;
+    while (n < max && !empty()) {
+      sink.add(best());
+      remove();
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Remove as many best values as fit into an array, best first.
+   *
+   * @param sink Array to store the removed values in, from slot 0 on.
+   * @return Number of values actually removed (and stored).
+   */
+  default int drainTo(T[] sink) {
+    int n = 0;
+    while (n < sink.length && !empty()) {
+      sink[n++] = best();
+      remove();
+    }
+    return n;
+  }
+
   /**
    * Return best value.
    *
@@ -51,6 +102,41 @@ public interface PriorityQueue<T extends Comparable<T>> {
    */
   T best() throws EmptyException;
 
+  /**
+   * Return best value, or null if there is none.
+   *
+   * <p>Same as best(), but signals an empty queue with null instead of
+   * an EmptyException, which is a lot cheaper in a polling loop. (So
+   * this only makes sense for queues that never hold null.)</p>
+   *
+   * <p>The default calls empty() and then best(), which is not atomic:
+   * thread-safe implementations must override it.</p>
+   *
+   * @return best value in the queue, or null if the queue is empty.
+   */
+  default T peekOrNull() {
+    return empty() ? null : best();
+  }
+
+  /**
+   * Remove and return best value, or return null if there is none.
+   *
+   * <p>The default calls empty(), best() and remove() one after the
+   * other. That is not atomic, another thread could remove the same
+   * value in between, so thread-safe implementations must override it
+   * to do all three under one lock (or one CAS).</p>
+   *
+   * @return the value that was removed, or null if the queue is empty.
+   */
+  default T pollOrNull() {
+    if (empty()) {
+      return null;
+    }
+    T t = best();
+    remove();
+    return t;
+  }
+
   /**
    * Check if no elements present.
    *
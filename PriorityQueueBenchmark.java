@@ -0,0 +1,391 @@
+package hw5;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the PriorityQueue implementations.
+ *
+ * <p>Every implementation is plugged in the same way the tests do it, as a
+ * function from a Comparator to a new queue (see createUnit() in
+ * PriorityQueueTest), and picked with the impl parameter. The size and
+ * input parameters give the number of values and their shape: random,
+ * sorted (ascending), reversed (descending), and dups (random values from
+ * a range of just 16).</p>
+ *
+ * <p>Benchmarks:</p>
+ * <ul>
+ *   <li>insert: insert n values into an empty queue.</li>
+ *   <li>remove: remove n values with best() and remove().</li>
+ *   <li>poll: remove n values with pollOrNull() instead.</li>
+ *   <li>decrease: keep n values in the queue and make each of them
+ *       better once, the decrease-key of Dijkstra and Prim. The pairing
+ *       and addressable heaps update the value in place through the
+ *       Position from insertHandle(); the others insert the better value
+ *       as a duplicate and leave the stale one behind, the usual lazy
+ *       workaround, so their queue doubles in size.</li>
+ *   <li>hold: keep n values in the queue and do remove-then-insert
+ *       pairs, the classic "hold model" for event queues. Sampled one
+ *       pair at a time, so JMH reports the latency percentiles.</li>
+ *   <li>rank: drain the queue and count the rank error of every removal,
+ *       how many better values were still queued when it came out; the
+ *       rankError counter divided by the removed counter is the mean.
+ *       Zero for the exact queues; "relaxed" is a MultiQueuePriorityQueue
+ *       with its default number of shards.</li>
+ * </ul>
+ *
+ * <p>The first four work on a whole queue per invocation, set up outside
+ * the measurement, and count every operation in the ops counter, so its
+ * score is operations per second rather than passes per second.</p>
+ *
+ * <p>Run through Maven, which builds the benchmarks with the tests:</p>
+ * <pre>
+ *   mvn test-compile exec:exec -Djmh.args="PriorityQueueBenchmark"
+ *   mvn test-compile exec:exec \
+ *       -Djmh.args="PriorityQueueBenchmark.hold -p impl=binary,dary4"
+ * </pre>
+ *
+ * <p>Add "-prof gc" for the bytes allocated per operation, and
+ * "-p size=10000000" for the heaps at scale. Keep the sizes for "list"
+ * and "sorted" modest, they are O(n) per operation.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriorityQueueBenchmark {
+  static final Map<String,
+      Function<Comparator<Integer>, PriorityQueue<Integer>>> IMPLS =
+      new LinkedHashMap<>();
+
+  static {
+    IMPLS.put("binary", BinaryHeapPriorityQueue::new);
+    IMPLS.put("array", ArrayHeapPriorityQueue::new);
+    IMPLS.put("array-bu", c -> new ArrayHeapPriorityQueue<>(16, c, true));
+    IMPLS.put("sorted", SortedArrayPriorityQueue::new);
+    IMPLS.put("cyclic", CyclicSortedArrayPriorityQueue::new);
+    IMPLS.put("list", ListPriorityQueue::new);
+    IMPLS.put("dary4", c -> new DAryHeapPriorityQueue<>(4, c));
+    IMPLS.put("dary8", c -> new DAryHeapPriorityQueue<>(8, c));
+    IMPLS.put("addressable", AddressableBinaryHeapPriorityQueue::new);
+    IMPLS.put("pairing", PairingHeapPriorityQueue::new);
+    IMPLS.put("minmax", MinMaxHeapPriorityQueue::new);
+    IMPLS.put("skiplist", ConcurrentSkipListPriorityQueue::new);
+    IMPLS.put("multiqueue", c -> new MultiQueuePriorityQueue<>(1, 1, c));
+    IMPLS.put("relaxed", MultiQueuePriorityQueue::new);
+    IMPLS.put("striped", c -> new StripedPriorityQueue<>(
+        BinaryHeapPriorityQueue::new, c));
+    IMPLS.put("blocking", c -> new BlockingPriorityQueue<>(
+        new BinaryHeapPriorityQueue<>(c)));
+  }
+
+  /**
+   * Implementation, size and input shape of a run, and the values that
+   * go with them.
+   */
+  @State(Scope.Thread)
+  public static class Shape {
+    @Param({"binary", "array", "array-bu", "sorted", "cyclic", "list",
+        "dary4", "dary8", "addressable", "pairing", "minmax", "skiplist",
+        "multiqueue", "relaxed", "striped", "blocking"})
+    public String impl;
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "dups"})
+    public String input;
+
+    int[] ints;
+    // boxed up front so we don't measure it
+    Integer[] values;
+    Integer[] better;
+    Function<Comparator<Integer>, PriorityQueue<Integer>> factory;
+
+    /** Make the values and look up the implementation. */
+    @Setup(Level.Trial)
+    public void setUp() {
+      factory = IMPLS.get(impl);
+      if (factory == null) {
+        throw new IllegalArgumentException("unknown implementation " + impl
+            + ", pick from " + IMPLS.keySet());
+      }
+      ints = values(input, size);
+      values = new Integer[size];
+      better = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = ints[i];
+        better[i] = better(ints[i]);
+      }
+    }
+
+    PriorityQueue<Integer> create() {
+      return factory.apply(Comparator.naturalOrder());
+    }
+  }
+
+  /** A new, empty queue for every invocation. */
+  @State(Scope.Thread)
+  public static class Empty {
+    PriorityQueue<Integer> pq;
+
+    /**
+     * Make the queue.
+     *
+     * @param s Shape of the run.
+     */
+    @Setup(Level.Invocation)
+    public void setUp(Shape s) {
+      pq = s.create();
+    }
+  }
+
+  /**
+   * A queue holding all the values for every invocation, with handles
+   * to them where the queue hands those out.
+   */
+  @State(Scope.Thread)
+  public static class Full {
+    PriorityQueue<Integer> pq;
+    Position<Integer>[] handles;
+
+    /**
+     * Fill the queue.
+     *
+     * @param s Shape of the run.
+     */
+    @Setup(Level.Invocation)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp(Shape s) {
+      pq = s.create();
+      handles = new Position[s.size];
+      for (int i = 0; i < s.size; i++) {
+        handles[i] = insertHandle(pq, s.values[i]);
+      }
+    }
+  }
+
+  /**
+   * A queue holding all the values for a whole iteration, for the hold
+   * benchmark.
+   */
+  @State(Scope.Thread)
+  public static class Held {
+    PriorityQueue<Integer> pq;
+    int next;
+
+    /**
+     * Fill the queue.
+     *
+     * @param s Shape of the run.
+     */
+    @Setup(Level.Iteration)
+    public void setUp(Shape s) {
+      pq = s.create();
+      for (Integer v : s.values) {
+        pq.insert(v);
+      }
+      next = 0;
+    }
+  }
+
+  /** Operations done, reported as a rate next to the primary score. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Ops {
+    /** Queue operations done so far in this iteration. */
+    public long ops;
+
+    /** Start the count over. */
+    @Setup(Level.Iteration)
+    public void reset() {
+      ops = 0;
+    }
+  }
+
+  /** Rank errors seen by the rank benchmark, reported as totals. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Ranks {
+    /** Sum of the rank errors of all removals. */
+    public long rankError;
+    /** Number of removals. */
+    public long removed;
+
+    /** Start the counts over. */
+    @Setup(Level.Iteration)
+    public void reset() {
+      rankError = 0;
+      removed = 0;
+    }
+  }
+
+  /**
+   * Insert n values into an empty queue.
+   *
+   * @param s Shape of the run.
+   * @param q Queue to fill.
+   * @param c Operation count.
+   * @return the queue, so the work can't be optimized away.
+   */
+  @Benchmark
+  public PriorityQueue<Integer> insert(Shape s, Empty q, Ops c) {
+    for (Integer v : s.values) {
+      q.pq.insert(v);
+    }
+    c.ops += s.size;
+    return q.pq;
+  }
+
+  /**
+   * Remove n values with best() and remove().
+   *
+   * @param s Shape of the run.
+   * @param q Queue to drain.
+   * @param c Operation count.
+   * @param bh Sink for the values.
+   */
+  @Benchmark
+  public void remove(Shape s, Full q, Ops c, Blackhole bh) {
+    for (int i = 0; i < s.size; i++) {
+      bh.consume(q.pq.best());
+      q.pq.remove();
+    }
+    c.ops += s.size;
+  }
+
+  /**
+   * Remove n values with pollOrNull().
+   *
+   * @param s Shape of the run.
+   * @param q Queue to drain.
+   * @param c Operation count.
+   * @param bh Sink for the values.
+   */
+  @Benchmark
+  public void poll(Shape s, Full q, Ops c, Blackhole bh) {
+    for (int i = 0; i < s.size; i++) {
+      bh.consume(q.pq.pollOrNull());
+    }
+    c.ops += s.size;
+  }
+
+  /**
+   * Make each of n queued values better once.
+   *
+   * @param s Shape of the run.
+   * @param q Queue holding the values.
+   * @param c Operation count.
+   * @return the queue, so the work can't be optimized away.
+   */
+  @Benchmark
+  public PriorityQueue<Integer> decrease(Shape s, Full q, Ops c) {
+    for (int i = 0; i < s.size; i++) {
+      if (q.handles[i] != null) {
+        q.handles[i].put(s.better[i]);
+      } else {
+        q.pq.insert(s.better[i]);
+      }
+    }
+    c.ops += s.size;
+    return q.pq;
+  }
+
+  /**
+   * One remove-then-insert pair on a queue of n values.
+   *
+   * @param s Shape of the run.
+   * @param q Queue holding the values.
+   * @return the value removed.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Integer hold(Shape s, Held q) {
+    Integer v = q.pq.best();
+    q.pq.remove();
+    q.pq.insert(s.values[q.next]);
+    q.next = q.next + 1 == s.size ? 0 : q.next + 1;
+    return v;
+  }
+
+  /**
+   * Drain a queue of n values and count the rank errors.
+   *
+   * @param s Shape of the run.
+   * @param q Queue to drain.
+   * @param r Rank error counts.
+   */
+  @Benchmark
+  public void rank(Shape s, Full q, Ranks r) {
+    for (int e : TestSupport.rankErrors(q.pq, s.ints)) {
+      r.rankError += e;
+    }
+    r.removed += s.size;
+  }
+
+  // Input values of the given shape.
+  static int[] values(String input, int n) {
+    Random r = new Random(n);
+    int[] v = new int[n];
+    for (int i = 0; i < n; i++) {
+      switch (input) {
+        case "random":
+          v[i] = r.nextInt();
+          break;
+        case "sorted":
+          v[i] = i;
+          break;
+        case "reversed":
+          v[i] = n - i;
+          break;
+        case "dups":
+          v[i] = r.nextInt(16);
+          break;
+        default:
+          throw new IllegalArgumentException("unknown input " + input);
+      }
+    }
+    return v;
+  }
+
+  // A value at least as good as v in natural order: halfway from v to
+  // Integer.MAX_VALUE, rounded up, so MAX_VALUE itself stays put.
+  static int better(int v) {
+    return (int) (((long) v + Integer.MAX_VALUE + 1) / 2);
+  }
+
+  // Inserts v, returning a handle to it if pq can update values in place
+  // and null otherwise.
+  private static Position<Integer> insertHandle(PriorityQueue<Integer> pq,
+                                                Integer v) {
+    if (pq instanceof PairingHeapPriorityQueue) {
+      return ((PairingHeapPriorityQueue<Integer>) pq).insertHandle(v);
+    }
+    if (pq instanceof AddressableBinaryHeapPriorityQueue) {
+      return ((AddressableBinaryHeapPriorityQueue<Integer>) pq)
+          .insertHandle(v);
+    }
+    pq.insert(v);
+    return null;
+  }
+}
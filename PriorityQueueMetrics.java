@@ -0,0 +1,193 @@
+package hw5;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing what a priority queue does on its hot paths.
+ *
+ * <p>Queues that support metrics take an instance through setMetrics()
+ * and call the recording methods below; with no metrics set they only pay
+ * for a null check. InstrumentedPriorityQueue records what it can for any
+ * other queue from the outside.</p>
+ *
+ * <p>The counters are plain fields updated by the (single) thread using
+ * the queue. Readers on other threads, JMX included, may see slightly
+ * stale values, which is fine for monitoring.</p>
+ */
+public class PriorityQueueMetrics implements PriorityQueueMetricsMBean {
+
+  /**
+   * Hook for pushing individual events into some other metrics system.
+   */
+  public interface Listener {
+    /**
+     * A sift finished.
+     *
+     * @param levels Number of levels the element moved.
+     */
+    void sifted(int levels);
+
+    /**
+     * The backing storage grew.
+     *
+     * @param capacity New capacity.
+     */
+    void resized(int capacity);
+  }
+
+  private long comparisons;
+  private long swaps;
+  private long sifts;
+  private long siftLevels;
+  private int maxSiftLength;
+  private long resizes;
+  private int size;
+  private Listener listener;
+  private ObjectName name;
+
+  /**
+   * Record one comparator invocation.
+   */
+  public void compared() {
+    comparisons++;
+  }
+
+  /**
+   * Record elements moving to other slots.
+   *
+   * @param n Number of moves.
+   */
+  public void swapped(int n) {
+    swaps += n;
+  }
+
+  /**
+   * Record a finished sift.
+   *
+   * @param levels Number of levels the element moved.
+   */
+  public void sifted(int levels) {
+    sifts++;
+    siftLevels += levels;
+    if (levels > maxSiftLength) {
+      maxSiftLength = levels;
+    }
+    if (listener != null) {
+      listener.sifted(levels);
+    }
+  }
+
+  /**
+   * Record the backing storage growing.
+   *
+   * @param capacity New capacity.
+   */
+  public void resized(int capacity) {
+    resizes++;
+    if (listener != null) {
+      listener.resized(capacity);
+    }
+  }
+
+  /**
+   * Record the current number of elements.
+   *
+   * @param n Number of elements.
+   */
+  public void sized(int n) {
+    size = n;
+  }
+
+  /**
+   * Set the listener told about sifts and resizes.
+   *
+   * @param listener Listener to use, or null for none.
+   */
+  public void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Publish these metrics as an MBean on the platform MBean server,
+   * under hw5:type=PriorityQueue,name=(the given name).
+   *
+   * @param queueName Name to tell this queue apart from others.
+   * @throws IllegalStateException If JMX refuses the registration, for
+   *                               example because the name is taken.
+   */
+  public void register(String queueName) {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName n = new ObjectName("hw5:type=PriorityQueue,name="
+          + ObjectName.quote(queueName));
+      server.registerMBean(this, n);
+      name = n;
+    } catch (JMException e) {
+      throw new IllegalStateException("cannot register " + queueName, e);
+    }
+  }
+
+  /**
+   * Take these metrics off the platform MBean server again, if they were
+   * registered.
+   */
+  public void unregister() {
+    if (name == null) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+    } catch (JMException e) {
+      // already gone, which is what we wanted anyway
+    }
+    name = null;
+  }
+
+  @Override
+  public long getComparisons() {
+    return comparisons;
+  }
+
+  @Override
+  public long getSwaps() {
+    return swaps;
+  }
+
+  @Override
+  public long getSifts() {
+    return sifts;
+  }
+
+  @Override
+  public double getAverageSiftLength() {
+    return sifts == 0 ? 0 : (double) siftLevels / sifts;
+  }
+
+  @Override
+  public int getMaxSiftLength() {
+    return maxSiftLength;
+  }
+
+  @Override
+  public long getResizes() {
+    return resizes;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public void reset() {
+    comparisons = 0;
+    swaps = 0;
+    sifts = 0;
+    siftLevels = 0;
+    maxSiftLength = 0;
+    resizes = 0;
+  }
+}
@@ -0,0 +1,65 @@
+package hw5;
+
+/**
+ * JMX view of a PriorityQueueMetrics.
+ *
+ * <p>The standard MBean naming rules want this interface to sit next to
+ * PriorityQueueMetrics and to be called exactly PriorityQueueMetricsMBean.
+ * </p>
+ */
+public interface PriorityQueueMetricsMBean {
+  /**
+   * Comparator invocations so far.
+   *
+   * @return number of comparisons.
+   */
+  long getComparisons();
+
+  /**
+   * Elements moved from one slot to another so far.
+   *
+   * @return number of swaps (or hole moves).
+   */
+  long getSwaps();
+
+  /**
+   * Sift operations (up or down) so far.
+   *
+   * @return number of sifts.
+   */
+  long getSifts();
+
+  /**
+   * Average number of levels a sift moved an element.
+   *
+   * @return average sift path length, 0 if there were no sifts.
+   */
+  double getAverageSiftLength();
+
+  /**
+   * Longest sift path seen so far.
+   *
+   * @return maximum sift path length.
+   */
+  int getMaxSiftLength();
+
+  /**
+   * Times the backing storage had to grow. Only queues that manage their
+   * own capacity report this.
+   *
+   * @return number of resizes.
+   */
+  long getResizes();
+
+  /**
+   * Number of elements in the queue at the last update.
+   *
+   * @return current size.
+   */
+  int getSize();
+
+  /**
+   * Set all counters (but not the size) back to zero.
+   */
+  void reset();
+}
@@ -3,10 +3,15 @@ package hw5;
 import exceptions.EmptyException;
 import org.junit.Before;
 import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -165,4 +170,90 @@ public abstract class PriorityQueueTest {
     reverseUnit.remove();
     assertEquals(0, reverseUnit.best().intValue());
   }
+
+  @Test
+  public void testRemoveInSortedOrder() {
+    ArrayList<Integer> expected = new ArrayList<>();
+    Random r = new Random(42);
+    for (int i = 0; i < 200; i++) {
+      int v = r.nextInt(50);
+      unit.insert(v);
+      reverseUnit.insert(v);
+      expected.add(v);
+    }
+    Collections.sort(expected);
+    for (int i = expected.size() - 1; i >= 0; i--) {
+      assertEquals(expected.get(i), unit.best());
+      unit.remove();
+    }
+    for (Integer v : expected) {
+      assertEquals(v, reverseUnit.best());
+      reverseUnit.remove();
+    }
+    assertTrue(unit.empty());
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test
+  public void testInsertAll() {
+    unit.insert(5);
+    unit.insertAll(Arrays.asList(1, 4, 0, 8, 2));
+    assertEquals(8, unit.best().intValue());
+    unit.remove();
+    assertEquals(5, unit.best().intValue());
+    unit.remove();
+    assertEquals(4, unit.best().intValue());
+
+    reverseUnit.insertAll(Arrays.asList(3, 4, 5, 6));
+    reverseUnit.insertAll(Arrays.asList(2));
+    assertEquals(2, reverseUnit.best().intValue());
+    reverseUnit.remove();
+    assertEquals(3, reverseUnit.best().intValue());
+  }
+
+  @Test
+  public void testDrainToCollection() {
+    unit.insertAll(Arrays.asList(1, 4, 0, 8, 2));
+    ArrayList<Integer> out = new ArrayList<>();
+    assertEquals(3, unit.drainTo(out, 3));
+    assertEquals(Arrays.asList(8, 4, 2), out);
+    assertEquals(1, unit.best().intValue());
+    assertEquals(2, unit.drainTo(out, 10));
+    assertEquals(Arrays.asList(8, 4, 2, 1, 0), out);
+    assertTrue(unit.empty());
+    assertEquals(0, unit.drainTo(out, 10));
+  }
+
+  @Test
+  public void testDrainToArray() {
+    reverseUnit.insertAll(Arrays.asList(1, 4, 0, 8, 2));
+    Integer[] out = new Integer[3];
+    assertEquals(3, reverseUnit.drainTo(out));
+    assertEquals(Arrays.asList(0, 1, 2), Arrays.asList(out));
+    out = new Integer[4];
+    assertEquals(2, reverseUnit.drainTo(out));
+    assertEquals(Arrays.asList(4, 8, null, null), Arrays.asList(out));
+    assertTrue(reverseUnit.empty());
+  }
+
+  @Test
+  public void testPeekAndPollOrNull() {
+    assertNull(unit.peekOrNull());
+    assertNull(unit.pollOrNull());
+    unit.insert(2);
+    unit.insert(7);
+    unit.insert(4);
+    assertEquals(7, unit.peekOrNull().intValue());
+    assertEquals(7, unit.pollOrNull().intValue());
+    assertEquals(4, unit.pollOrNull().intValue());
+    assertEquals(2, unit.peekOrNull().intValue());
+    assertEquals(2, unit.pollOrNull().intValue());
+    assertNull(unit.pollOrNull());
+    assertTrue(unit.empty());
+
+    reverseUnit.insert(2);
+    reverseUnit.insert(7);
+    assertEquals(2, reverseUnit.pollOrNull().intValue());
+    assertEquals(7, reverseUnit.peekOrNull().intValue());
+  }
 }
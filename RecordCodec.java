@@ -0,0 +1,39 @@
+package hw5;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns values into fixed-size binary records and back.
+ *
+ * <p>Used by the queues that keep their elements in files. Every record
+ * has the same size, which is what lets a heap find slot i without an
+ * index.</p>
+ *
+ * @param <T> Element type.
+ */
+public interface RecordCodec<T> {
+  /**
+   * Size of every record in bytes.
+   *
+   * @return record size, at least 1.
+   */
+  int recordSize();
+
+  /**
+   * Write a value at the buffer's position, advancing it by exactly
+   * recordSize() bytes.
+   *
+   * @param t Value to write.
+   * @param buf Buffer to write to.
+   */
+  void encode(T t, ByteBuffer buf);
+
+  /**
+   * Read a value at the buffer's position, advancing it by exactly
+   * recordSize() bytes.
+   *
+   * @param buf Buffer to read from.
+   * @return the value.
+   */
+  T decode(ByteBuffer buf);
+}
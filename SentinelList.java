@@ -2,8 +2,12 @@ package hw5;
 
 import exceptions.EmptyException;
 import exceptions.PositionException;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 /**
  * A generic position-based linked list.
@@ -24,6 +28,7 @@ public class SentinelList<T> implements List<T> {
 
   /* ** LinkedList instance variables are declared here! ** */
   private int length;     // how many nodes in the list
+  private int modCount;   // bumped on every change, for fail-fast views
 
   /**
    * Create an empty list.
@@ -46,11 +51,11 @@ public class SentinelList<T> implements List<T> {
     try {
       Node<T> n = (Node<T>) p;
       if (n.owner != this) {
-        throw new PositionException();
+        throw PositionException.create();
       }
       return n;
     } catch (NullPointerException | ClassCastException e) {
-      throw new PositionException();
+      throw PositionException.create();
     }
   }
 
@@ -79,7 +84,7 @@ public class SentinelList<T> implements List<T> {
   @Override
   public Position<T> front() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     return head.next;
   }
@@ -87,7 +92,7 @@ public class SentinelList<T> implements List<T> {
   @Override
   public Position<T> back() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     return tail.prev;
   }
@@ -95,7 +100,7 @@ public class SentinelList<T> implements List<T> {
   @Override
   public Position<T> next(Position<T> p) throws PositionException {
     if (last(p)) {
-      throw new PositionException();
+      throw PositionException.create();
     }
     return convert(p).next;
   }
@@ -103,7 +108,7 @@ public class SentinelList<T> implements List<T> {
   @Override
   public Position<T> previous(Position<T> p) throws PositionException {
     if (first(p)) {
-      throw new PositionException();
+      throw PositionException.create();
     }
     return convert(p).prev;
   }
@@ -121,6 +126,7 @@ public class SentinelList<T> implements List<T> {
     front.prev = n;
 
     length += 1;
+    modCount++;
     return n;
   }
 
@@ -136,13 +142,14 @@ public class SentinelList<T> implements List<T> {
     n.prev.next = n;
 
     length += 1;
+    modCount++;
     return n;
   }
 
   @Override
   public void removeFront() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
 
     Node<T> h = head.next;
@@ -152,13 +159,14 @@ public class SentinelList<T> implements List<T> {
     hh.prev = head;
 
     length -= 1;
+    modCount++;
     h.owner = null; // invalidate position
   }
 
   @Override
   public void removeBack() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     Node<T> t = tail.prev;
     Node<T> tt = t.prev;
@@ -167,6 +175,7 @@ public class SentinelList<T> implements List<T> {
     tt.next = tail;
 
     length -= 1;
+    modCount++;
     t.owner = null; // invalidate position
   }
 
@@ -181,6 +190,7 @@ public class SentinelList<T> implements List<T> {
     after.prev = before;
 
     length -= 1;
+    modCount++;
     n.owner = null; // invalidate position
   }
 
@@ -202,6 +212,7 @@ public class SentinelList<T> implements List<T> {
     current.prev = newBefore;
 
     length += 1;
+    modCount++;
     return newBefore;
   }
 
@@ -221,6 +232,7 @@ public class SentinelList<T> implements List<T> {
     after.prev = newAfter;
 
     length += 1;
+    modCount++;
     return newAfter;
   }
 
@@ -239,6 +251,22 @@ public class SentinelList<T> implements List<T> {
     return forward();
   }
 
+  /**
+   * A spliterator over the list, front to back.
+   *
+   * <p>It splits the way java.util.LinkedList's does: walk the nodes and
+   * copy a batch of values into an array that becomes the split-off
+   * part, with batches growing by BATCH_UNIT each time. Walking is the
+   * only way to get at the middle of a linked list, so this is as good
+   * as it gets for parallel streams.</p>
+   *
+   * @return a spliterator over the values.
+   */
+  @Override
+  public Spliterator<T> spliterator() {
+    return new ListSpliterator();
+  }
+
   @Override
   public String toString() {
     StringBuilder s = new StringBuilder();
@@ -273,6 +301,88 @@ public class SentinelList<T> implements List<T> {
     }
   }
 
+  /**
+   * Splits by copying batches of values off the front into arrays.
+   * Binds to the list when first used, not when created, and throws a
+   * ConcurrentModificationException if the list changes after that.
+   */
+  private final class ListSpliterator implements Spliterator<T> {
+    static final int BATCH_UNIT = 1 << 10;
+    static final int MAX_BATCH = 1 << 25;
+    Node<T> current; // next node to visit, null until first used
+    int est = -1; // values left, -1 until first used
+    int batch; // size of the last split-off batch
+    int expected; // modCount when bound
+
+    private int getEst() {
+      if (est < 0) {
+        current = head.next;
+        est = length;
+        expected = modCount;
+      }
+      return est;
+    }
+
+    private void check() {
+      if (modCount != expected) {
+        throw new ConcurrentModificationException();
+      }
+    }
+
+    @Override
+    public long estimateSize() {
+      return getEst();
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      int s = getEst();
+      if (s <= 1 || current == tail) {
+        return null;
+      }
+      int n = Math.min(Math.min(batch + BATCH_UNIT, s), MAX_BATCH);
+      Object[] a = new Object[n];
+      int j = 0;
+      while (j < n && current != tail) {
+        a[j++] = current.data;
+        current = current.next;
+      }
+      batch = j;
+      est = s - j;
+      return Spliterators.spliterator(a, 0, j, Spliterator.ORDERED);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (getEst() <= 0 || current == tail) {
+        return false;
+      }
+      check();
+      est--;
+      T t = current.data;
+      current = current.next;
+      action.accept(t);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      getEst();
+      Node<T> n = current;
+      current = tail;
+      est = 0;
+      for (; n != tail && modCount == expected; n = n.next) {
+        action.accept(n.data);
+      }
+      check();
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+    }
+  }
+
   /**
    * This iterator can be used to create either a forward
    * iterator, or a backwards one.
@@ -0,0 +1,21 @@
+package hw5;
+
+/**
+ * Priority queue that knows how many values it holds.
+ *
+ * <p>Not every queue can say this cheaply, and for most callers empty()
+ * is enough, so it's a separate interface. It matters for queues that
+ * may drop values on insert, like BoundedPriorityQueue: there, the
+ * number of values inserted says little about the size.</p>
+ *
+ * @param <T> Element type.
+ */
+public interface SizedPriorityQueue<T extends Comparable<T>>
+    extends PriorityQueue<T> {
+  /**
+   * Number of values in the queue.
+   *
+   * @return Number of values.
+   */
+  int size();
+}
@@ -0,0 +1,133 @@
+package hw5;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot format shared by the array-backed queues.
+ *
+ * <p>A snapshot is a header (magic number, record size, count), the
+ * elements as fixed-size records in the order the queue keeps them in
+ * its array, and a CRC32 of everything before it. Since the array is
+ * written as is, a heap comes back as a valid heap and a sorted array
+ * as a sorted array, with no comparisons at all.</p>
+ */
+final class Snapshots {
+  private static final int MAGIC = 0x68773573; // "hw5s"
+  private static final int HEADER = 12; // magic, record size, count
+  private static final int BUFFER = 64 * 1024;
+
+  private Snapshots() {
+  }
+
+  /**
+   * Write a snapshot.
+   *
+   * @param out Channel to write to; left open.
+   * @param codec Codec for the elements.
+   * @param count Number of elements.
+   * @param at Element in array slot i, for i from 0 to count - 1.
+   * @param <T> Element type.
+   * @throws IOException If the channel can't be written.
+   */
+  static <T> void write(WritableByteChannel out, RecordCodec<T> codec,
+                        int count, IntFunction<T> at) throws IOException {
+    int rec = codec.recordSize();
+    ByteBuffer buf = ByteBuffer.allocate(Math.max(BUFFER, HEADER + rec));
+    CRC32 crc = new CRC32();
+    buf.putInt(MAGIC).putInt(rec).putInt(count);
+    for (int i = 0; i < count; i++) {
+      if (buf.remaining() < rec) {
+        flush(out, buf, crc);
+      }
+      codec.encode(at.apply(i), buf);
+    }
+    flush(out, buf, crc);
+    buf.putLong(crc.getValue());
+    buf.flip();
+    while (buf.hasRemaining()) {
+      out.write(buf);
+    }
+  }
+
+  // Writes out what's in buf, adding it to the checksum.
+  private static void flush(WritableByteChannel out, ByteBuffer buf,
+                            CRC32 crc) throws IOException {
+    crc.update(buf.array(), 0, buf.position());
+    buf.flip();
+    while (buf.hasRemaining()) {
+      out.write(buf);
+    }
+    buf.clear();
+  }
+
+  /**
+   * Read a snapshot, passing its elements on in array order.
+   *
+   * <p>The checksum can only be verified at the end, so the sink may
+   * already have seen elements when this throws; build a fresh queue and
+   * drop it if that happens.</p>
+   *
+   * @param in Channel to read from; left open, just past the snapshot.
+   * @param codec Codec for the elements.
+   * @param sink Takes the elements.
+   * @param <T> Element type.
+   * @throws IOException If the channel can't be read or the snapshot is
+   *                     truncated, corrupt, or for another record size.
+   */
+  static <T> void read(ReadableByteChannel in, RecordCodec<T> codec,
+                       Consumer<T> sink) throws IOException {
+    int rec = codec.recordSize();
+    ByteBuffer buf = ByteBuffer.allocate(Math.max(BUFFER, HEADER + rec));
+    buf.flip(); // start out empty
+    CRC32 crc = new CRC32();
+    // never read past the snapshot, so the caller can go on reading
+    fill(in, buf, HEADER, HEADER);
+    crc.update(buf.array(), buf.position(), HEADER);
+    if (buf.getInt() != MAGIC) {
+      throw new IOException("not a snapshot");
+    }
+    if (buf.getInt() != rec) {
+      throw new IOException("snapshot has a different record size");
+    }
+    int count = buf.getInt();
+    if (count < 0) {
+      throw new IOException("corrupt snapshot");
+    }
+    long owed = (long) count * rec + 8; // records, then the checksum
+    for (int i = 0; i < count; i++) {
+      owed -= fill(in, buf, rec, owed);
+      crc.update(buf.array(), buf.position(), rec);
+      sink.accept(codec.decode(buf));
+    }
+    fill(in, buf, 8, owed);
+    if (buf.getLong() != crc.getValue()) {
+      throw new IOException("snapshot checksum mismatch");
+    }
+  }
+
+  // Makes sure at least n bytes are waiting in buf, reading no more than
+  // the owed bytes still left in the snapshot. Returns how many it read.
+  private static int fill(ReadableByteChannel in, ByteBuffer buf, int n,
+                          long owed) throws IOException {
+    if (buf.remaining() >= n) {
+      return 0;
+    }
+    buf.compact();
+    int start = buf.position();
+    buf.limit((int) Math.min(buf.capacity(), start + owed));
+    while (buf.position() < n) {
+      if (in.read(buf) < 0) {
+        throw new IOException("truncated snapshot");
+      }
+    }
+    int read = buf.position() - start;
+    buf.flip();
+    return read;
+  }
+}
@@ -1,8 +1,18 @@
 package hw5;
 
 import exceptions.EmptyException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Priority queue implemented as a sorted ArrayList.
@@ -17,7 +27,7 @@ import java.util.Comparator;
  * @param <T> Element type.
  */
 public class SortedArrayPriorityQueue<T extends Comparable<T>>
-    implements PriorityQueue<T> {
+    implements TraversablePriorityQueue<T> {
 
   private ArrayList<T> data;
   private Comparator<T> cmp;
@@ -41,6 +51,32 @@ public class SortedArrayPriorityQueue<T extends Comparable<T>>
     this.cmp = cmp;
   }
 
+  /**
+   * A sorted array holding the given values, using the "natural"
+   * ordering of T.
+   *
+   * @param items Values to start out with.
+   */
+  public SortedArrayPriorityQueue(Collection<? extends T> items) {
+    this(items, new DefaultComparator<>());
+  }
+
+  /**
+   * A sorted array holding the given values, using the given comparator
+   * for T.
+   *
+   * <p>The values are sorted once in O(n log n) rather than inserted
+   * one by one with O(n) shifting each.</p>
+   *
+   * @param items Values to start out with.
+   * @param cmp Comparator to use.
+   */
+  public SortedArrayPriorityQueue(Collection<? extends T> items,
+                                  Comparator<T> cmp) {
+    this(cmp);
+    addAll(items);
+  }
+
   // Value in the slot i "less" than value in the slot j?
   // Note that the comparator determines what we consider "less" here.
   private boolean less(int i, int j) {
@@ -72,30 +108,209 @@ public class SortedArrayPriorityQueue<T extends Comparable<T>>
     data.add(p, t); // ArrayList takes care of shifting elements.
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Appends the whole batch and sorts once. The old values are
+   * already one sorted run, so this costs about O(n + k log k) instead
+   * of k insertions with O(n) shifting each.</p>
+   */
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    addAll(ts);
+  }
+
+  // insertAll() proper, private so the constructor can use it without
+  // calling anything a subclass could override.
+  private void addAll(Collection<? extends T> ts) {
+    if (ts.isEmpty()) {
+      return;
+    }
+    data.addAll(ts);
+    // best first, so sort by the reverse of the comparator
+    data.subList(1, data.size()).sort(cmp.reversed());
+  }
+
   @Override
   public void remove() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     T t = data.remove(1); // ArrayList takes care of shifting elements.
     // It would have been a better implementation if "best" was placed
     //  at the end so removing it would not require shifting.
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The best values are already lined up at the front, so they are
+   * copied out and dropped with a single range removal instead of one
+   * O(n) shift per value.</p>
+   */
+  @Override
+  public int drainTo(Collection<? super T> sink, int max) {
+    int n = Math.max(0, Math.min(max, data.size() - 1));
+    java.util.List<T> front = data.subList(1, 1 + n);
+    sink.addAll(front);
+    front.clear();
+    return n;
+  }
+
+  @Override
+  public int drainTo(T[] sink) {
+    int n = Math.min(sink.length, data.size() - 1);
+    for (int i = 0; i < n; i++) {
+      sink[i] = data.get(1 + i);
+    }
+    data.subList(1, 1 + n).clear();
+    return n;
+  }
+
   @Override
   public T best() throws EmptyException {
     if (empty()) {
-      throw new EmptyException();
+      throw EmptyException.create();
     }
     return data.get(1); // because of sentinel at 0
   }
 
+  @Override
+  public T peekOrNull() {
+    return empty() ? null : data.get(1);
+  }
+
+  @Override
+  public T pollOrNull() {
+    return empty() ? null : data.remove(1);
+  }
+
   @Override
   public boolean empty() {
 
     return data.size() == 1;  // because of sentinel at 0
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The array is already sorted best first, so this is a read-only
+   * window onto its front; nothing is copied.</p>
+   */
+  @Override
+  public Iterable<T> orderedView(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative");
+    }
+    return () -> Collections.unmodifiableList(
+        data.subList(1, 1 + Math.min(limit, data.size() - 1))).iterator();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Here the order is best first.</p>
+   */
+  @Override
+  public void forEach(Consumer<? super T> action) {
+    for (T t : orderedView(Integer.MAX_VALUE)) {
+      action.accept(t);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Here the order is best first.</p>
+   */
+  @Override
+  public Stream<T> stream() {
+    return data.subList(1, data.size()).stream();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Here the encounter order is best first.</p>
+   */
+  @Override
+  public Stream<T> parallelStream() {
+    return data.subList(1, data.size()).parallelStream();
+  }
+
+  // The array is sorted best first, so this is just stream().
+  @Override
+  public Stream<T> orderedStream() {
+    return stream();
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * <p>The elements are written best first, the order they are kept in.</p>
+   *
+   * @param out Channel to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the channel can't be written.
+   */
+  public void snapshot(WritableByteChannel out, RecordCodec<T> codec)
+      throws IOException {
+    Snapshots.write(out, codec, data.size() - 1, i -> data.get(1 + i));
+  }
+
+  /**
+   * Write a snapshot of this queue.
+   *
+   * @param out Stream to write to; left open.
+   * @param codec Codec for the elements.
+   * @throws IOException If the stream can't be written.
+   */
+  public void snapshot(OutputStream out, RecordCodec<T> codec)
+      throws IOException {
+    snapshot(Channels.newChannel(out), codec);
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * <p>The elements come back already sorted, so they are appended as
+   * they are instead of going through find() one by one.</p>
+   *
+   * @param in Channel to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the channel can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> SortedArrayPriorityQueue<T>
+      restore(ReadableByteChannel in, RecordCodec<T> codec,
+              Comparator<T> cmp) throws IOException {
+    SortedArrayPriorityQueue<T> pq = new SortedArrayPriorityQueue<>(cmp);
+    Snapshots.read(in, codec, pq.data::add);
+    return pq;
+  }
+
+  /**
+   * Rebuild a queue from a snapshot.
+   *
+   * @param in Stream to read from; left open.
+   * @param codec Codec for the elements.
+   * @param cmp Comparator to use; must be the one the snapshot was taken
+   *            with.
+   * @param <T> Element type.
+   * @return the restored queue.
+   * @throws IOException If the stream can't be read or the snapshot is
+   *                     truncated or corrupt.
+   */
+  public static <T extends Comparable<T>> SortedArrayPriorityQueue<T>
+      restore(InputStream in, RecordCodec<T> codec, Comparator<T> cmp)
+      throws IOException {
+    return restore(Channels.newChannel(in), codec, cmp);
+  }
+
   // The default comparator uses the "natural" ordering.
   private static class DefaultComparator<T extends Comparable<T>>
       implements Comparator<T> {
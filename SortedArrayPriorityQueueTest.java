@@ -1,21 +1,80 @@
 package hw5;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
 import java.util.Comparator;
 import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  * Instantiate the SortedArrayPriorityQueue to test.
  */
-public class SortedArrayPriorityQueueTest extends PriorityQueueTest {
+public class SortedArrayPriorityQueueTest
+    extends TraversablePriorityQueueTest {
 
   @Override
-  protected PriorityQueue<Integer> createUnit() {
+  protected TraversablePriorityQueue<Integer> createUnit() {
     return new SortedArrayPriorityQueue<>();
   }
 
   @Override
-  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+  protected TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp) {
 
     return new SortedArrayPriorityQueue<>(comp);
   }
 
+  @Test
+  public void testBuildFromCollection() {
+    PriorityQueue<Integer> pq = new SortedArrayPriorityQueue<>(
+        Arrays.asList(1, 4, 0, 8, 2), reverseComp);
+    pq.insert(3);
+    for (int v : new int[] {0, 1, 2, 3, 4, 8}) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void testRestoreNeedsNoComparisons() throws IOException {
+    SortedArrayPriorityQueue<Integer> pq =
+        new SortedArrayPriorityQueue<>(reverseComp);
+    for (int v : new int[] {4, 8, 1, 6, 1}) {
+      pq.insert(v);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(Channels.newChannel(out),
+        new TestSupport.IntCodec());
+    int[] calls = new int[1];
+    Comparator<Integer> counting = (a, b) -> {
+      calls[0]++;
+      return b.compareTo(a);
+    };
+    PriorityQueue<Integer> copy = SortedArrayPriorityQueue.restore(
+        Channels.newChannel(new ByteArrayInputStream(out.toByteArray())),
+        new TestSupport.IntCodec(), counting);
+    assertEquals(0, calls[0]);
+    for (int v : new int[] {1, 1, 4, 6, 8}) {
+      assertEquals(v, copy.best().intValue());
+      copy.remove();
+    }
+    assertTrue(copy.empty());
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedSnapshotRejected() throws IOException {
+    SortedArrayPriorityQueue<Integer> pq = new SortedArrayPriorityQueue<>();
+    pq.insert(1);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pq.snapshot(out, new TestSupport.IntCodec());
+    byte[] bytes = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+    SortedArrayPriorityQueue.restore(new ByteArrayInputStream(bytes),
+        new TestSupport.IntCodec(), Comparator.naturalOrder());
+  }
 }
@@ -0,0 +1,299 @@
+package hw5;
+
+import exceptions.EmptyException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Thread-safe priority queue that spreads inserts over several stripes.
+ *
+ * <p>Each stripe is an ordinary (single-threaded) PriorityQueue made by a
+ * factory such as BinaryHeapPriorityQueue::new, guarded by its own lock.
+ * Producers don't touch the stripes on every insert: each thread first
+ * collects values in a small buffer of its own, which is just an array
+ * store, and only hands the whole buffer to "its" stripe with a single
+ * insertAll() once the buffer is full.</p>
+ *
+ * <p>The consumer side keeps a copy of every stripe's top in a tournament
+ * tree, so best() is the winner at the root and remove() only has to
+ * replay the one path from the stripe it removed from. Stripes flag
+ * themselves after a flush and their tops are refreshed lazily.</p>
+ *
+ * <p>Note that values sitting in a thread's buffer are invisible to
+ * <b>other</b> threads until that buffer is flushed. A thread always sees
+ * its own inserts (best(), remove() and empty() flush the caller's buffer
+ * first), but producers should call flush() when they want their values
+ * to show up right away, and <b>must</b> call it before they stop for
+ * good.</p>
+ *
+ * @param <T> Element type.
+ */
+public class StripedPriorityQueue<T extends Comparable<T>>
+    implements PriorityQueue<T> {
+
+  private static final int DEFAULT_BUFFER = 64;
+
+  private final Stripe<T>[] stripes;
+  private final Comparator<T> cmp;
+  private final int bufferSize;
+  private final ThreadLocal<Buffer<T>> buffers;
+  private final AtomicInteger nextStripe = new AtomicInteger();
+
+  // consumer side, all guarded by consumer
+  private final ReentrantLock consumer = new ReentrantLock();
+  private final Object[] tops;
+  private final int[] tree; // tree[1] is the root, leaves start at leaves
+  private final int leaves;
+
+  /**
+   * A striped queue with one stripe per available processor.
+   *
+   * @param factory Makes the stripes, given the comparator to use.
+   * @param cmp Comparator to use.
+   */
+  public StripedPriorityQueue(
+      Function<Comparator<T>, PriorityQueue<T>> factory, Comparator<T> cmp) {
+    this(factory, cmp, Runtime.getRuntime().availableProcessors(),
+        DEFAULT_BUFFER);
+  }
+
+  /**
+   * A striped queue.
+   *
+   * @param factory Makes the stripes, given the comparator to use.
+   * @param cmp Comparator to use.
+   * @param stripes Number of stripes, at least 1.
+   * @param bufferSize Values each thread buffers before flushing,
+   *                   at least 1.
+   * @throws IllegalArgumentException If stripes or bufferSize is less
+   *                                  than 1.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public StripedPriorityQueue(
+      Function<Comparator<T>, PriorityQueue<T>> factory, Comparator<T> cmp,
+      int stripes, int bufferSize) {
+    if (stripes < 1 || bufferSize < 1) {
+      throw new IllegalArgumentException("need a stripe and a buffer");
+    }
+    this.cmp = cmp;
+    this.bufferSize = bufferSize;
+    this.stripes = (Stripe<T>[]) new Stripe[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.stripes[i] = new Stripe<>(factory.apply(cmp));
+    }
+    buffers = ThreadLocal.withInitial(() -> new Buffer<>(bufferSize,
+        this.stripes[Math.floorMod(nextStripe.getAndIncrement(), stripes)]));
+
+    int n = 1;
+    while (n < stripes) {
+      n *= 2;
+    }
+    leaves = n;
+    tops = new Object[stripes];
+    tree = new int[2 * n];
+    for (int i = 0; i < n; i++) {
+      tree[n + i] = i < stripes ? i : -1;
+    }
+    for (int i = n - 1; i >= 1; i--) {
+      tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T top(int stripe) {
+    return stripe < 0 ? null : (T) tops[stripe];
+  }
+
+  // The stripe with the better top; missing or empty stripes lose.
+  private int winner(int a, int b) {
+    T ta = top(a);
+    T tb = top(b);
+    if (ta == null) {
+      return tb == null ? a : b;
+    }
+    return tb == null || cmp.compare(ta, tb) >= 0 ? a : b;
+  }
+
+  // Replay the matches on the path from a stripe's leaf to the root.
+  private void replay(int stripe) {
+    for (int i = (leaves + stripe) / 2; i >= 1; i /= 2) {
+      tree[i] = winner(tree[2 * i], tree[2 * i + 1]);
+    }
+  }
+
+  // Pick up the new tops of all stripes that were flushed into.
+  private void refresh() {
+    for (int i = 0; i < stripes.length; i++) {
+      Stripe<T> s = stripes[i];
+      if (s.dirty) {
+        s.dirty = false; // before reading, so no flush can slip by
+        s.lock.lock();
+        try {
+          tops[i] = s.pq.empty() ? null : s.pq.best();
+        } finally {
+          s.lock.unlock();
+        }
+        replay(i);
+      }
+    }
+  }
+
+  private void flush(Buffer<T> b) {
+    if (b.count == 0) {
+      return;
+    }
+    Stripe<T> s = b.stripe;
+    s.lock.lock();
+    try {
+      s.pq.insertAll(Arrays.asList(b.items).subList(0, b.count));
+    } finally {
+      s.lock.unlock();
+    }
+    Arrays.fill(b.items, 0, b.count, null);
+    b.count = 0;
+    s.dirty = true;
+  }
+
+  /**
+   * Hand the values buffered by the calling thread to the stripes, making
+   * them visible to all threads.
+   */
+  public void flush() {
+    flush(buffers.get());
+  }
+
+  @Override
+  public void insert(T t) {
+    Buffer<T> b = buffers.get();
+    b.items[b.count++] = t;
+    if (b.count == bufferSize) {
+      flush(b);
+    }
+  }
+
+  @Override
+  public void insertAll(Collection<? extends T> ts) {
+    Buffer<T> b = buffers.get();
+    flush(b);
+    Stripe<T> s = b.stripe;
+    s.lock.lock();
+    try {
+      s.pq.insertAll(ts);
+    } finally {
+      s.lock.unlock();
+    }
+    s.dirty = true;
+  }
+
+  // Removes and returns the best value, or null if there is none; the
+  // consumer lock must be held. The value comes from the stripe itself,
+  // which a flush may have given a better top since the last refresh.
+  private T removeTop() {
+    refresh();
+    int w = tree[1];
+    if (top(w) == null) {
+      return null;
+    }
+    Stripe<T> s = stripes[w];
+    T t;
+    s.lock.lock();
+    try {
+      t = s.pq.best();
+      s.pq.remove();
+      tops[w] = s.pq.empty() ? null : s.pq.best();
+    } finally {
+      s.lock.unlock();
+    }
+    replay(w);
+    return t;
+  }
+
+  @Override
+  public void remove() throws EmptyException {
+    if (pollOrNull() == null) {
+      throw EmptyException.create();
+    }
+  }
+
+  /**
+   * Remove and return the best value, without throwing on empty.
+   *
+   * <p>Use this instead of best() followed by remove() when other
+   * threads may be removing values too: the two calls are not atomic
+   * together, this one is.</p>
+   *
+   * @return best value, or null if the queue is empty.
+   */
+  @Override
+  public T pollOrNull() {
+    flush();
+    consumer.lock();
+    try {
+      return removeTop();
+    } finally {
+      consumer.unlock();
+    }
+  }
+
+  @Override
+  public T best() throws EmptyException {
+    T t = peekOrNull();
+    if (t == null) {
+      throw EmptyException.create();
+    }
+    return t;
+  }
+
+  @Override
+  public T peekOrNull() {
+    flush();
+    consumer.lock();
+    try {
+      refresh();
+      return top(tree[1]);
+    } finally {
+      consumer.unlock();
+    }
+  }
+
+  @Override
+  public boolean empty() {
+    flush();
+    consumer.lock();
+    try {
+      refresh();
+      return top(tree[1]) == null;
+    } finally {
+      consumer.unlock();
+    }
+  }
+
+  // A stripe: an underlying queue, its lock, and a flag set after every
+  // flush so the consumer knows to re-read its top.
+  private static final class Stripe<T extends Comparable<T>> {
+    final ReentrantLock lock = new ReentrantLock();
+    final PriorityQueue<T> pq;
+    volatile boolean dirty;
+
+    Stripe(PriorityQueue<T> pq) {
+      this.pq = pq;
+    }
+  }
+
+  // A thread's insertion buffer and the stripe it flushes into.
+  private static final class Buffer<T extends Comparable<T>> {
+    final T[] items;
+    final Stripe<T> stripe;
+    int count;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Buffer(int size, Stripe<T> stripe) {
+      items = (T[]) new Comparable[size];
+      this.stripe = stripe;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instantiate the StripedPriorityQueue to test.
+ */
+public class StripedPriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected PriorityQueue<Integer> createUnit() {
+    return createUnit(Comparator.naturalOrder());
+  }
+
+  @Override
+  protected PriorityQueue<Integer> createUnit(Comparator<Integer> comp) {
+    // tiny buffers so the tests flush often
+    return new StripedPriorityQueue<>(
+        BinaryHeapPriorityQueue::new, comp, 3, 2);
+  }
+
+  @Test
+  public void worksOverAnyQueue() {
+    PriorityQueue<Integer> pq = new StripedPriorityQueue<>(
+        SortedArrayPriorityQueue::new, reverseComp, 5, 4);
+    for (int i = 0; i < 100; i++) {
+      pq.insert((i * 37) % 100);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void flushedProducersAreAllSeen() throws InterruptedException {
+    int threads = 4;
+    int perThread = 10000;
+    StripedPriorityQueue<Integer> pq = new StripedPriorityQueue<>(
+        BinaryHeapPriorityQueue::new, Comparator.<Integer>naturalOrder(),
+        4, 64);
+    ArrayList<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < threads; p++) {
+      final int base = p * perThread;
+      producers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          pq.insert(base + i);
+        }
+        pq.flush();
+      }));
+    }
+    for (Thread t : producers) {
+      t.start();
+    }
+    for (Thread t : producers) {
+      t.join();
+    }
+    for (int v = threads * perThread - 1; v >= 0; v--) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+    assertTrue(pq.empty());
+  }
+
+  @Test
+  public void concurrentConsumersSeeEveryValueOnce()
+      throws InterruptedException {
+    int threads = 4;
+    int perThread = 10000;
+    int total = threads * perThread;
+    StripedPriorityQueue<Integer> pq = new StripedPriorityQueue<>(
+        BinaryHeapPriorityQueue::new, Comparator.<Integer>naturalOrder(),
+        4, 16);
+    AtomicIntegerArray seen = new AtomicIntegerArray(total);
+    AtomicInteger removed = new AtomicInteger();
+    ArrayList<Thread> workers = new ArrayList<>();
+    for (int p = 0; p < threads; p++) {
+      final int base = p * perThread;
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          pq.insert(base + i);
+        }
+        pq.flush();
+      }));
+      workers.add(new Thread(() -> {
+        while (removed.get() < total) {
+          Integer v = pq.pollOrNull();
+          if (v != null) {
+            seen.incrementAndGet(v);
+            removed.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread t : workers) {
+      t.start();
+    }
+    for (Thread t : workers) {
+      t.join();
+    }
+    assertNull(pq.pollOrNull());
+    for (int i = 0; i < total; i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package hw5;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Helpers shared by the tests.
+ */
+final class TestSupport {
+  private TestSupport() {
+  }
+
+  /**
+   * Drain a queue and measure the rank error of every removal, that is
+   * how many strictly better values were still in the queue at the time.
+   *
+   * @param pq Queue holding exactly the given values, in natural order.
+   * @param values Values in the queue, in any order; may repeat.
+   * @return the rank error of each pollOrNull(), in removal order.
+   */
+  static int[] rankErrors(PriorityQueue<Integer> pq, int[] values) {
+    int[] distinct = Arrays.stream(values).sorted().distinct().toArray();
+    // Fenwick tree counting the queued copies of each distinct value
+    int[] tree = new int[distinct.length + 1];
+    for (int v : values) {
+      for (int i = Arrays.binarySearch(distinct, v) + 1; i < tree.length;
+           i += i & -i) {
+        tree[i]++;
+      }
+    }
+    int[] errors = new int[values.length];
+    for (int k = 0; k < values.length; k++) {
+      int slot = Arrays.binarySearch(distinct, pq.pollOrNull()) + 1;
+      int atMost = 0;
+      for (int i = slot; i > 0; i -= i & -i) {
+        atMost += tree[i];
+      }
+      errors[k] = (values.length - k) - atMost;
+      for (int i = slot; i < tree.length; i += i & -i) {
+        tree[i]--;
+      }
+    }
+    return errors;
+  }
+
+  /**
+   * Natural ordering of Integers that counts how often it gets called.
+   */
+  static final class CountingComparator implements Comparator<Integer> {
+    /** Calls so far; tests reset it to zero as they see fit. */
+    long count;
+
+    @Override
+    public int compare(Integer t1, Integer t2) {
+      count++;
+      return t1.compareTo(t2);
+    }
+  }
+
+  /**
+   * Ints as 4-byte big-endian records.
+   */
+  static final class IntCodec implements RecordCodec<Integer> {
+    @Override
+    public int recordSize() {
+      return 4;
+    }
+
+    @Override
+    public void encode(Integer t, ByteBuffer buf) {
+      buf.putInt(t);
+    }
+
+    @Override
+    public Integer decode(ByteBuffer buf) {
+      return buf.getInt();
+    }
+  }
+}
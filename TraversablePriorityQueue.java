@@ -0,0 +1,55 @@
+package hw5;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Priority queue whose values can be looked at without removing them.
+ *
+ * <p>Everything here is read-only and fail-fast: changing the queue while
+ * a view or traversal is in use makes it throw a
+ * java.util.ConcurrentModificationException.</p>
+ *
+ * @param <T> Element type.
+ */
+public interface TraversablePriorityQueue<T extends Comparable<T>>
+    extends PriorityQueue<T> {
+  /**
+   * The best values in priority order, without removing them.
+   *
+   * @param limit Most values to return.
+   * @return a view of the best limit values, best first.
+   * @throws IllegalArgumentException If limit is negative.
+   */
+  Iterable<T> orderedView(int limit);
+
+  /**
+   * Perform an action on every value, in no particular order.
+   *
+   * @param action Action to perform.
+   * @throws java.util.ConcurrentModificationException If the action
+   *     changes the queue.
+   */
+  void forEach(Consumer<? super T> action);
+
+  /**
+   * A sequential stream of the values, in no particular order.
+   *
+   * @return a stream over the queue.
+   */
+  Stream<T> stream();
+
+  /**
+   * A parallel stream of the values, in no particular order.
+   *
+   * @return a possibly parallel stream over the queue.
+   */
+  Stream<T> parallelStream();
+
+  /**
+   * A sequential stream of the values in priority order, best first.
+   *
+   * @return a stream over the queue, best first.
+   */
+  Stream<T> orderedStream();
+}
@@ -0,0 +1,110 @@
+package hw5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Testing implementations of the TraversablePriorityQueue interface, on
+ * top of the PriorityQueue tests.
+ */
+public abstract class TraversablePriorityQueueTest extends PriorityQueueTest {
+  @Override
+  protected abstract TraversablePriorityQueue<Integer> createUnit();
+
+  @Override
+  protected abstract TraversablePriorityQueue<Integer> createUnit(
+      Comparator<Integer> comp);
+
+  @Test
+  public void testOrderedViewLeavesQueueAlone() {
+    TraversablePriorityQueue<Integer> pq = createUnit();
+    ArrayList<Integer> values = new ArrayList<>();
+    Random r = new Random(24);
+    for (int i = 0; i < 300; i++) {
+      int v = r.nextInt(100);
+      values.add(v);
+      pq.insert(v);
+    }
+    values.sort(Collections.reverseOrder());
+    ArrayList<Integer> top = new ArrayList<>();
+    for (int v : pq.orderedView(25)) {
+      top.add(v);
+    }
+    assertEquals(values.subList(0, 25), top);
+    ArrayList<Integer> all = new ArrayList<>();
+    pq.orderedView(1000).forEach(all::add);
+    assertEquals(values, all);
+    long[] sum = new long[1];
+    pq.forEach(v -> sum[0] += v);
+    assertEquals(values.stream().mapToLong(v -> v).sum(), sum[0]);
+    for (int v : values) {
+      assertEquals(v, pq.best().intValue());
+      pq.remove();
+    }
+  }
+
+  @Test
+  public void testOrderedViewFollowsComparator() {
+    TraversablePriorityQueue<Integer> pq = createUnit(reverseComp);
+    for (int v : new int[] {4, 9, 1, 7, 1}) {
+      pq.insert(v);
+    }
+    ArrayList<Integer> top = new ArrayList<>();
+    pq.orderedView(3).forEach(top::add);
+    assertEquals(Arrays.asList(1, 1, 4), top);
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void testOrderedViewFailsFast() {
+    TraversablePriorityQueue<Integer> pq = createUnit();
+    pq.insert(1);
+    pq.insert(2);
+    Iterator<Integer> it = pq.orderedView(2).iterator();
+    it.next();
+    pq.insert(3);
+    it.next();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderedViewRejectsNegativeLimit() {
+    createUnit().orderedView(-1);
+  }
+
+  @Test
+  public void testStreams() {
+    TraversablePriorityQueue<Integer> pq = createUnit();
+    ArrayList<Integer> values = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      values.add(i % 97);
+      pq.insert(i % 97);
+    }
+    long sum = values.stream().mapToLong(v -> v).sum();
+    assertEquals(sum, pq.stream().mapToLong(v -> v).sum());
+    assertEquals(sum, pq.parallelStream().mapToLong(v -> v).sum());
+    assertEquals(5000, pq.parallelStream().filter(v -> v >= 0).count());
+    values.sort(Collections.reverseOrder());
+    assertEquals(values, pq.orderedStream().collect(Collectors.toList()));
+    assertEquals(values.subList(0, 10),
+        pq.orderedStream().limit(10).collect(Collectors.toList()));
+    assertEquals(5000,
+        pq.stream().spliterator().getExactSizeIfKnown());
+  }
+
+  @Test(expected = ConcurrentModificationException.class)
+  public void testStreamFailsFast() {
+    TraversablePriorityQueue<Integer> pq = createUnit();
+    for (int i = 0; i < 10; i++) {
+      pq.insert(i);
+    }
+    pq.stream().forEach(v -> pq.insert(v));
+  }
+}
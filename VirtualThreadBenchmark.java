@@ -0,0 +1,98 @@
+package hw5;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark of BlockingPriorityQueue with thousands of threads
+ * waiting in take().
+ *
+ * <p>Every invocation starts the given number of consumers, which all
+ * block in take() on an empty queue, and then as many producers; every
+ * thread inserts or takes perThread values. With "virtual", each task
+ * gets its own virtual thread from
+ * Executors.newVirtualThreadPerTaskExecutor(), so the waiting consumers
+ * are parked virtual threads, which only works out because the queue
+ * waits on a j.u.c Condition instead of in a synchronized block. With
+ * "platform", each task gets its own platform thread instead, for
+ * comparison. The ops counter is values inserted plus values taken per
+ * second.</p>
+ *
+ * <pre>
+ *   mvn test-compile exec:exec -Djmh.args="VirtualThreadBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class VirtualThreadBenchmark {
+  @Param({"virtual", "platform"})
+  public String threads;
+
+  @Param({"10000"})
+  public int consumers;
+
+  @Param({"10"})
+  public int perThread;
+
+  /**
+   * Run the producers and consumers to completion.
+   *
+   * @param c Operation count.
+   * @return the sum of the values taken.
+   */
+  @Benchmark
+  public long producersAndConsumers(PriorityQueueBenchmark.Ops c) {
+    BlockingPriorityQueue<Integer> pq =
+        new BlockingPriorityQueue<>(new BinaryHeapPriorityQueue<Integer>());
+    LongAdder sum = new LongAdder();
+    try (ExecutorService ex = executor()) {
+      for (int i = 0; i < consumers; i++) {
+        ex.submit(() -> {
+          for (int k = 0; k < perThread; k++) {
+            sum.add(pq.take());
+          }
+          return null;
+        });
+      }
+      for (int i = 0; i < consumers; i++) {
+        final int base = i * perThread;
+        ex.submit(() -> {
+          for (int k = 0; k < perThread; k++) {
+            pq.insert(base + k);
+          }
+        });
+      }
+    }
+    c.ops += 2L * consumers * perThread;
+    return sum.sum();
+  }
+
+  private ExecutorService executor() {
+    switch (threads) {
+      case "virtual":
+        return Executors.newVirtualThreadPerTaskExecutor();
+      case "platform":
+        return Executors.newThreadPerTaskExecutor(
+            Thread.ofPlatform().factory());
+      default:
+        throw new IllegalArgumentException("unknown threads " + threads
+            + ", pick from virtual, platform");
+    }
+  }
+}